@@ -0,0 +1,63 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.cell.Cell;
+import com.terraforged.world.climate.ClimateModule;
+import com.terraforged.world.heightmap.Heightmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// ClimateModule.apply over every cell of a tile's block grid, with the rows shared between the workers.
+// the cells are pre-populated with the base heightmap so that climate sees realistic inputs
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClimateBenchmark extends GeneratorState {
+
+    private ClimateModule climate;
+    private Cell[] cells;
+    private float[] results;
+
+    @Override
+    protected void setup() {
+        Heightmap heightmap = context.factory.getHeightmap();
+        climate = new ClimateModule(heightmap.getContinent(), context.copy());
+        results = new float[threads];
+
+        int size = blockSize.total;
+        cells = new Cell[size * size];
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                Cell cell = new Cell();
+                heightmap.applyBase(cell, x, z);
+                cells[z * size + x] = cell;
+            }
+        }
+    }
+
+    @Benchmark
+    public float apply() throws Exception {
+        int size = blockSize.total;
+        parallel(worker -> {
+            Cell cell = new Cell();
+            float sum = 0F;
+            for (int z = worker; z < size; z += threads) {
+                for (int x = 0; x < size; x++) {
+                    cell.copy(cells[z * size + x]);
+                    climate.apply(cell, x, z);
+                    sum += cell.moisture + cell.temperature;
+                }
+            }
+            results[worker] = sum;
+        });
+        return sum(results);
+    }
+}
@@ -0,0 +1,93 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.filter.Erosion;
+import com.terraforged.core.filter.Filter;
+import com.terraforged.core.filter.Modifier;
+import com.terraforged.core.settings.FilterSettings;
+import com.terraforged.core.tile.Tile;
+import com.terraforged.core.tile.gen.TileResources;
+import com.terraforged.world.heightmap.Heightmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// droplet erosion at a fixed number of iterations, applied to freshly generated (unfiltered) tiles.
+// impl selects the simulation: 'buffer' reads & writes the tile's CellBuffer per droplet step (BufferErosion),
+// 'primitive' runs on flat copies of the heights & weights (Erosion)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ErosionBenchmark extends GeneratorState {
+
+    @Param({"15000", "50000"})
+    public int iterations;
+
+    @Param({"buffer", "primitive"})
+    public String impl;
+
+    private Tile[] tiles;
+    private ByteBuffer[] snapshots;
+    private Filter erosion;
+
+    @Override
+    protected void setup() {
+        Heightmap heightmap = context.factory.getHeightmap();
+        TileResources resources = new TileResources();
+
+        tiles = new Tile[threads];
+        snapshots = new ByteBuffer[threads];
+        for (int i = 0; i < threads; i++) {
+            tiles[i] = new Tile(i, 0, factor, BORDER, resources, t -> {});
+            tiles[i].generate(heightmap);
+            snapshots[i] = ByteBuffer.allocate(blockSize.arraySize * CellBuffer.BYTES_PER_CELL);
+            tiles[i].filterable().getBacking().writeColumns(snapshots[i], blockSize.arraySize);
+        }
+
+        // both run the single threaded, tile-seeded path so that only the storage they simulate on differs
+        FilterSettings.Erosion erosionSettings = settings.filters.erosion.copy();
+        erosionSettings.parallel = false;
+        erosionSettings.worldSpace = false;
+        Modifier modifier = Modifier.range(context.levels.ground, context.levels.ground(15));
+        if (impl.equals("buffer")) {
+            erosion = new BufferErosion(blockSize.total, erosionSettings, modifier);
+        } else {
+            erosion = new Erosion(blockSize.total, erosionSettings, modifier);
+        }
+    }
+
+    @Override
+    protected void tearDown() {
+        for (Tile tile : tiles) {
+            tile.close();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() {
+        for (int i = 0; i < threads; i++) {
+            snapshots[i].clear();
+            tiles[i].filterable().getBacking().readColumns(snapshots[i], blockSize.arraySize);
+        }
+    }
+
+    @Benchmark
+    public void erosion() throws Exception {
+        parallel(worker -> {
+            Tile tile = tiles[worker];
+            erosion.apply(tile.filterable(), tile.getRegionX(), tile.getRegionZ(), iterations);
+        });
+    }
+}
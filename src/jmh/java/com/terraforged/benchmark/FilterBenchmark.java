@@ -0,0 +1,141 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.filter.BeachDetect;
+import com.terraforged.core.filter.Erosion;
+import com.terraforged.core.filter.Filter;
+import com.terraforged.core.filter.FilterPipeline;
+import com.terraforged.core.filter.GridErosion;
+import com.terraforged.core.filter.Smoothing;
+import com.terraforged.core.filter.Steepness;
+import com.terraforged.core.filter.kernel.FilterKernel;
+import com.terraforged.core.filter.kernel.FilterKernels;
+import com.terraforged.core.settings.FilterSettings;
+import com.terraforged.core.settings.Settings;
+import com.terraforged.core.tile.Tile;
+import com.terraforged.core.tile.gen.TileResources;
+import com.terraforged.world.heightmap.Heightmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// each of the WorldFilters stages, applied to freshly generated (unfiltered) tiles. each worker filters its own
+// tile using the shared filter instance, as the tile generators do.
+// kernel selects the stencil implementation used by smoothing, steepness & beach detection: 'default' is the vector
+// kernel when available (run with -PvectorJdk, see build.gradle), otherwise the same as 'scalar'
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FilterBenchmark extends GeneratorState {
+
+    @Param({"scalar", "default"})
+    public String kernel;
+
+    private Tile[] tiles;
+    private ByteBuffer[] snapshots;
+
+    private Erosion erosion;
+    private GridErosion gridErosion;
+    private Smoothing smoothing;
+    private Smoothing separableSmoothing;
+    private Steepness steepness;
+    private BeachDetect beach;
+    private FilterPipeline surface;
+
+    @Override
+    protected void setup() {
+        Heightmap heightmap = context.factory.getHeightmap();
+        TileResources resources = new TileResources();
+
+        tiles = new Tile[threads];
+        snapshots = new ByteBuffer[threads];
+        for (int i = 0; i < threads; i++) {
+            tiles[i] = new Tile(i, 0, factor, BORDER, resources, t -> {});
+            tiles[i].generate(heightmap);
+            snapshots[i] = ByteBuffer.allocate(blockSize.arraySize * CellBuffer.BYTES_PER_CELL);
+            tiles[i].filterable().getBacking().writeColumns(snapshots[i], blockSize.arraySize);
+        }
+
+        erosion = Erosion.factory(context).apply(blockSize.total);
+        gridErosion = GridErosion.create(context);
+        FilterKernel filterKernel = kernel.equals("scalar") ? FilterKernels.scalar() : FilterKernels.get();
+        smoothing = new Smoothing(settings, context.levels, filterKernel);
+        Settings separable = preset.create();
+        separable.filters.smoothing.mode = FilterSettings.Smoothing.Mode.SEPARABLE;
+        separableSmoothing = new Smoothing(separable, context.levels, filterKernel);
+        steepness = new Steepness(1, 10F, terrains, context.levels, filterKernel);
+        beach = new BeachDetect(context, filterKernel);
+        surface = new FilterPipeline(steepness, beach);
+    }
+
+    @Override
+    protected void tearDown() {
+        for (Tile tile : tiles) {
+            tile.close();
+        }
+    }
+
+    // every stage should see the same input so the tiles are restored before each call
+    @Setup(Level.Invocation)
+    public void restore() {
+        for (int i = 0; i < threads; i++) {
+            snapshots[i].clear();
+            tiles[i].filterable().getBacking().readColumns(snapshots[i], blockSize.arraySize);
+        }
+    }
+
+    @Benchmark
+    public void erosion() throws Exception {
+        apply(erosion, settings.filters.erosion.iterations);
+    }
+
+    @Benchmark
+    public void gridErosion() throws Exception {
+        apply(gridErosion, settings.filters.erosion.gridSteps);
+    }
+
+    @Benchmark
+    public void smoothing() throws Exception {
+        apply(smoothing, settings.filters.smoothing.iterations);
+    }
+
+    @Benchmark
+    public void separableSmoothing() throws Exception {
+        apply(separableSmoothing, settings.filters.smoothing.iterations);
+    }
+
+    @Benchmark
+    public void steepness() throws Exception {
+        apply(steepness, 1);
+    }
+
+    @Benchmark
+    public void beachDetect() throws Exception {
+        apply(beach, 1);
+    }
+
+    // steepness & beach detection fused into one pass, as run by WorldFilters
+    @Benchmark
+    public void steepnessBeachDetect() throws Exception {
+        apply(surface, 1);
+    }
+
+    private void apply(Filter filter, int iterations) throws Exception {
+        parallel(worker -> {
+            Tile tile = tiles[worker];
+            filter.apply(tile.filterable(), tile.getRegionX(), tile.getRegionZ(), iterations);
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.concurrent.thread.ThreadPool;
+import com.terraforged.core.concurrent.thread.ThreadPools;
+import com.terraforged.core.settings.Settings;
+import com.terraforged.core.tile.Size;
+import com.terraforged.world.GeneratorContext;
+import com.terraforged.world.terrain.Terrains;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+// common parameters for all of the generation benchmarks:
+// - factor: the tile size (2^factor chunks per side)
+// - threads: the number of worker threads sharing the benchmarked component
+// - preset: the settings the generator is built from
+@State(Scope.Benchmark)
+public abstract class GeneratorState {
+
+    public static final int BORDER = 2;
+
+    @Param({"2", "3"})
+    public int factor;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    @Param({"DEFAULT", "DENSE_RIVERS", "HEAVY_FILTERS"})
+    public Preset preset;
+
+    protected Size blockSize;
+    protected Settings settings;
+    protected Terrains terrains;
+    protected GeneratorContext context;
+    protected ThreadPool threadPool;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        settings = preset.create();
+        terrains = Terrains.create(settings);
+        context = GeneratorContext.createNoCache(terrains, settings);
+        threadPool = ThreadPools.create(threads, true, true);
+        blockSize = Size.blocks(factor, BORDER);
+        setup();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        tearDown();
+        threadPool.shutdown();
+    }
+
+    protected void setup() throws Exception {
+
+    }
+
+    protected void tearDown() {
+
+    }
+
+    // runs the task once for each worker (0 to threads - 1) & waits for them all to complete
+    protected void parallel(IntConsumer task) throws Exception {
+        if (threads == 1) {
+            task.accept(0);
+            return;
+        }
+
+        Future<?>[] futures = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            int worker = i;
+            futures[i] = threadPool.submit(() -> task.accept(worker));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    // combines per-worker results so that the benchmarked work can't be eliminated
+    protected static float sum(float[] values) {
+        float sum = 0F;
+        for (float value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,50 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.cell.Cell;
+import com.terraforged.world.heightmap.Heightmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Heightmap.apply over every cell of a tile's block grid, with the rows shared between the workers.
+// divide the score by blockSize.arraySize for the cost per cell
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HeightmapBenchmark extends GeneratorState {
+
+    private Heightmap heightmap;
+    private float[] results;
+
+    @Override
+    protected void setup() {
+        heightmap = context.factory.getHeightmap();
+        results = new float[threads];
+    }
+
+    @Benchmark
+    public float apply() throws Exception {
+        int size = blockSize.total;
+        parallel(worker -> {
+            Cell cell = new Cell();
+            float sum = 0F;
+            for (int z = worker; z < size; z += threads) {
+                for (int x = 0; x < size; x++) {
+                    cell.reset();
+                    heightmap.apply(cell, x, z);
+                    sum += cell.value;
+                }
+            }
+            results[worker] = sum;
+        });
+        return sum(results);
+    }
+}
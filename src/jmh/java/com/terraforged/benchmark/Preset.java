@@ -0,0 +1,45 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.settings.Settings;
+
+// settings variations that stress different parts of the pipeline
+public enum Preset {
+    DEFAULT {
+        @Override
+        protected void apply(Settings settings) {
+
+        }
+    },
+    SMALL_CONTINENTS {
+        @Override
+        protected void apply(Settings settings) {
+            settings.world.continent.continentScale = 1000;
+        }
+    },
+    DENSE_RIVERS {
+        @Override
+        protected void apply(Settings settings) {
+            settings.rivers.riverCount = 30;
+            settings.rivers.lakes.chance = 0.6F;
+            settings.rivers.wetlands.chance = 0.8F;
+        }
+    },
+    HEAVY_FILTERS {
+        @Override
+        protected void apply(Settings settings) {
+            settings.filters.erosion.iterations = 30000;
+            settings.filters.erosion.dropletLifetime = 40;
+            settings.filters.smoothing.iterations = 3;
+        }
+    },
+    ;
+
+    public Settings create() {
+        Settings settings = new Settings();
+        settings.world.seed = 8008135L;
+        apply(settings);
+        return settings;
+    }
+
+    protected abstract void apply(Settings settings);
+}
@@ -0,0 +1,71 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.cell.Cell;
+import com.terraforged.n2d.util.NoiseUtil;
+import com.terraforged.world.heightmap.Heightmap;
+import com.terraforged.world.rivermap.Rivermap;
+import com.terraforged.world.rivermap.gen.RiverGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// RiverGenerator.compute (uncached) for a different continent on each worker
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RiverBenchmark extends GeneratorState {
+
+    private RiverGenerator generator;
+    private int[] continentX;
+    private int[] continentZ;
+    private Rivermap[] results;
+
+    @Override
+    protected void setup() {
+        Heightmap heightmap = context.factory.getHeightmap();
+        generator = new RiverGenerator(heightmap, context);
+        continentX = new int[threads];
+        continentZ = new int[threads];
+        results = new Rivermap[threads];
+
+        // sample the continent centers along the x-axis, one continent cell (4 * continentScale) apart, skipping
+        // any center already taken so that each worker has its own
+        Cell cell = new Cell();
+        int spacing = settings.world.continent.continentScale * 4;
+        for (int i = 0, x = 0; i < threads; x += spacing) {
+            heightmap.applyBase(cell, x, 0);
+            if (!contains(cell.continentX, cell.continentZ, i)) {
+                continentX[i] = cell.continentX;
+                continentZ[i] = cell.continentZ;
+                i++;
+            }
+        }
+    }
+
+    private boolean contains(int x, int z, int count) {
+        for (int i = 0; i < count; i++) {
+            if (continentX[i] == x && continentZ[i] == z) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public Rivermap[] compute() throws Exception {
+        parallel(worker -> {
+            int x = continentX[worker];
+            int z = continentZ[worker];
+            results[worker] = generator.compute(x, z, NoiseUtil.seed(x, z));
+        });
+        return results;
+    }
+}
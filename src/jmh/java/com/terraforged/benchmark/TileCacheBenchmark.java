@@ -0,0 +1,74 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.tile.chunk.ChunkReader;
+import com.terraforged.core.tile.gen.TileCache;
+import com.terraforged.core.tile.gen.TileGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// TileCache.getChunk with every worker reading random chunks from a pre-generated set of regions, so this
+// measures the cost of concurrent cache lookups rather than generation
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TileCacheBenchmark extends GeneratorState {
+
+    private static final int REGIONS = 3;
+    private static final int READS = 1024;
+
+    private TileCache cache;
+    private int[][] chunks;
+    private float[] results;
+
+    @Override
+    protected void setup() {
+        cache = TileGenerator.builder()
+                .factory(context.factory)
+                .size(factor, BORDER)
+                .pool(threadPool)
+                .build()
+                .toCache(false);
+
+        for (int rz = 0; rz < REGIONS; rz++) {
+            for (int rx = 0; rx < REGIONS; rx++) {
+                cache.getRegion(rx, rz);
+            }
+        }
+
+        // the same (seeded) sequence of reads each invocation
+        int area = REGIONS << factor;
+        results = new float[threads];
+        chunks = new int[threads][READS * 2];
+        for (int i = 0; i < threads; i++) {
+            Random random = new Random(i);
+            for (int j = 0; j < chunks[i].length; j++) {
+                chunks[i][j] = random.nextInt(area);
+            }
+        }
+    }
+
+    @Benchmark
+    public float getChunk() throws Exception {
+        parallel(worker -> {
+            int[] coords = chunks[worker];
+            float sum = 0F;
+            for (int i = 0; i < coords.length; i += 2) {
+                try (ChunkReader chunk = cache.getChunk(coords[i], coords[i + 1])) {
+                    sum += chunk.getCell(i & 15, (i >> 4) & 15).value;
+                }
+            }
+            results[worker] = sum;
+        });
+        return sum(results);
+    }
+}
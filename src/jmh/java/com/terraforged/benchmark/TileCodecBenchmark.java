@@ -0,0 +1,146 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.tile.Tile;
+import com.terraforged.core.tile.gen.TileCodec;
+import com.terraforged.core.tile.gen.TileGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// TileCodec encode & decode of pre-generated regions, each worker coding its own region. decoding overwrites the
+// region with its own (previously encoded) data. the encoded & raw sizes of all regions are reported alongside the
+// encode times, & setup fails if a round trip loses more than the codec's quantization step in any float column
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TileCodecBenchmark extends GeneratorState {
+
+    // CellCodec quantizes each float column to 16 bits over the column's min-max range
+    private static final float QUANTIZE = 0xFFFF;
+
+    private Tile[] tiles;
+    private byte[][] encoded;
+    private float[] results;
+
+    @Override
+    protected void setup() throws Exception {
+        TileGenerator generator = TileGenerator.builder()
+                .factory(context.factory)
+                .size(factor, BORDER)
+                .pool(threadPool)
+                .build();
+
+        tiles = new Tile[threads];
+        encoded = new byte[threads][];
+        results = new float[threads];
+        for (int i = 0; i < threads; i++) {
+            tiles[i] = generator.generateRegion(i, 0);
+            encoded[i] = TileCodec.encode(tiles[i]);
+            checkRoundTrip(tiles[i], encoded[i]);
+        }
+    }
+
+    @Override
+    protected void tearDown() {
+        for (int i = 0; i < threads; i++) {
+            tiles[i].close();
+        }
+    }
+
+    @Benchmark
+    public float encode(Sizes sizes) throws Exception {
+        parallel(worker -> results[worker] = TileCodec.encode(tiles[worker]).length);
+        sizes.encodedBytes = (long) sum(results);
+        sizes.rawBytes = (long) threads * blockSize.arraySize * CellBuffer.BYTES_PER_CELL;
+        return sum(results);
+    }
+
+    @Benchmark
+    public float decode() throws Exception {
+        parallel(worker -> {
+            try {
+                TileCodec.decode(encoded[worker], tiles[worker], terrains);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            results[worker] = tiles[worker].getRawCell(0, 0).value;
+        });
+        return sum(results);
+    }
+
+    // decodes the data back into the tile & checks every cell against the values it held before encoding
+    private void checkRoundTrip(Tile tile, byte[] data) throws Exception {
+        int size = blockSize.total;
+        float[][] expected = new float[size * size][];
+        Cell[] cells = new Cell[expected.length];
+        float[] min = null;
+        float[] max = null;
+        for (int z = 0, i = 0; z < size; z++) {
+            for (int x = 0; x < size; x++, i++) {
+                cells[i] = tile.getRawCell(x, z);
+                expected[i] = getFloats(cells[i]);
+                if (min == null) {
+                    min = expected[i].clone();
+                    max = expected[i].clone();
+                }
+                for (int c = 0; c < min.length; c++) {
+                    min[c] = Math.min(min[c], expected[i][c]);
+                    max[c] = Math.max(max[c], expected[i][c]);
+                }
+            }
+        }
+
+        TileCodec.decode(data, tile, terrains);
+
+        for (int z = 0, i = 0; z < size; z++) {
+            for (int x = 0; x < size; x++, i++) {
+                Cell cell = tile.getRawCell(x, z);
+                if (cell.terrain != cells[i].terrain || cell.biomeType != cells[i].biomeType
+                        || cell.continentX != cells[i].continentX || cell.continentZ != cells[i].continentZ) {
+                    throw new IllegalStateException("Cell " + x + "," + z + " changed in round trip");
+                }
+
+                float[] actual = getFloats(cell);
+                for (int c = 0; c < actual.length; c++) {
+                    // half a step either side of the quantized value, plus float rounding
+                    float step = (max[c] - min[c]) / QUANTIZE;
+                    float bound = step * 0.5F + Math.ulp(Math.max(Math.abs(min[c]), Math.abs(max[c]))) * 4;
+                    if (Math.abs(actual[c] - expected[i][c]) > bound) {
+                        throw new IllegalStateException("Column " + c + " of cell " + x + "," + z + " is out by "
+                                + Math.abs(actual[c] - expected[i][c]) + ", expected at most " + bound);
+                    }
+                }
+            }
+        }
+    }
+
+    private static float[] getFloats(Cell cell) {
+        return new float[]{
+                cell.continentEdge, cell.continentIdentity, cell.terrainRegionEdge, cell.terrainRegionIdentity,
+                cell.biomeEdge, cell.biomeIdentity, cell.riverMask, cell.value, cell.moisture, cell.temperature,
+                cell.macroNoise, cell.gradient, cell.erosion, cell.sediment
+        };
+    }
+
+    // the total encoded & raw (in-memory) bytes of the workers' regions, as of the last encode
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public long encodedBytes;
+        public long rawBytes;
+    }
+}
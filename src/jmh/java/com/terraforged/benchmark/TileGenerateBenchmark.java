@@ -0,0 +1,60 @@
+package com.terraforged.benchmark;
+
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.batch.Batcher;
+import com.terraforged.core.tile.Tile;
+import com.terraforged.core.tile.gen.TileResources;
+import com.terraforged.world.heightmap.Heightmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Tile.generate (without filters):
+// - sync: each worker generates its own tile on a single thread
+// - batched: a single tile is generated with its chunks batched across the thread pool
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TileGenerateBenchmark extends GeneratorState {
+
+    private static final int BATCH_SIZE = 6;
+
+    private Heightmap heightmap;
+    private TileResources resources;
+
+    @Override
+    protected void setup() {
+        heightmap = context.factory.getHeightmap();
+        resources = new TileResources();
+    }
+
+    @Benchmark
+    public void sync() throws Exception {
+        parallel(worker -> {
+            Tile tile = createTile(worker);
+            tile.generate(heightmap);
+            tile.close();
+        });
+    }
+
+    @Benchmark
+    public void batched() {
+        Tile tile = createTile(0);
+        try (Resource<Batcher> batcher = threadPool.batcher()) {
+            tile.generateArea(heightmap, batcher.get(), BATCH_SIZE);
+        }
+        tile.close();
+    }
+
+    private Tile createTile(int regionX) {
+        return new Tile(regionX, 0, factor, BORDER, resources, t -> {});
+    }
+}
@@ -1,11 +1,17 @@
 package com.terraforged.core;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.SimpleResource;
+import com.terraforged.core.util.StreamRandom;
 
 // used to attach high-demand resources to TF controlled worker threads
 public class ThreadContext {
     
     public final Resource<Cell> cell = new SimpleResource<>(new Cell(), Cell::reset);
+
+    public final Resource<CellBlock> block = new SimpleResource<>(new CellBlock(), b -> {});
+
+    public final StreamRandom random = new StreamRandom();
 }
@@ -28,6 +28,7 @@ package com.terraforged.core.cell;
 import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.pool.ObjectPool;
 import com.terraforged.core.concurrent.thread.context.ContextualThread;
+import com.terraforged.core.util.metric.Metrics;
 import com.terraforged.world.biome.BiomeType;
 import com.terraforged.world.terrain.Terrain;
 
@@ -51,6 +52,10 @@ public class Cell {
 
     private static final ObjectPool<Cell> POOL = new ObjectPool<>(32, Cell::new);
 
+    static {
+        Metrics.register("cell_pool", POOL);
+    }
+
     public int continentX;
     public int continentZ;
     public float continentEdge;
@@ -0,0 +1,100 @@
+package com.terraforged.core.cell;
+
+import com.terraforged.core.concurrent.Resource;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// hands out off-heap CellBuffers backed by fixed-size direct memory pages. pages are never freed, only
+// returned to the arena for reuse, and the total number of bytes allocated is capped at maxResidentBytes
+public class CellArena {
+
+    private final int pageCells;
+    private final int pageBytes;
+    private final long maxResidentBytes;
+    private final List<Page> free = new ArrayList<>();
+    private final Object lock = new Object();
+
+    private long residentBytes = 0L;
+
+    public CellArena(int pageCells, long maxResidentBytes) {
+        this.pageCells = pageCells;
+        this.pageBytes = pageCells * CellBuffer.BYTES_PER_CELL;
+        this.maxResidentBytes = maxResidentBytes;
+    }
+
+    public int getPageCells() {
+        return pageCells;
+    }
+
+    public long getResidentBytes() {
+        synchronized (lock) {
+            return residentBytes;
+        }
+    }
+
+    // returns null if the requested size doesn't fit in a page or the arena is at capacity
+    public Resource<CellBuffer> get(int size) {
+        if (size > pageCells) {
+            return null;
+        }
+
+        synchronized (lock) {
+            if (free.size() > 0) {
+                return free.remove(free.size() - 1).retain();
+            }
+
+            if (residentBytes + pageBytes > maxResidentBytes) {
+                return null;
+            }
+
+            residentBytes += pageBytes;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(pageBytes);
+        return new Page(CellBuffer.direct(buffer, pageCells), this);
+    }
+
+    private void restore(Page page) {
+        synchronized (lock) {
+            free.add(page);
+        }
+    }
+
+    private static class Page implements Resource<CellBuffer> {
+
+        private final CellBuffer buffer;
+        private final CellArena arena;
+
+        private boolean released = false;
+
+        private Page(CellBuffer buffer, CellArena arena) {
+            this.buffer = buffer;
+            this.arena = arena;
+        }
+
+        @Override
+        public CellBuffer get() {
+            return buffer;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !released;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                arena.restore(this);
+            }
+        }
+
+        private Page retain() {
+            released = false;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.terraforged.core.cell;
+
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.pool.ObjectPool;
+import com.terraforged.core.concurrent.thread.context.ContextualThread;
+import com.terraforged.n2d.util.NoiseUtil;
+import com.terraforged.world.terrain.Terrain;
+
+import java.util.Arrays;
+
+// a chunk's worth of cells & their world coordinates so that a populator graph can be evaluated one block at a
+// time (see Populator.applyBlock) rather than walking the whole graph for every cell.
+// also holds per-block scratch arrays for populators that need to keep intermediate results
+public class CellBlock {
+
+    public static final int SIZE = 16;
+    public static final int AREA = SIZE * SIZE;
+
+    // alpha values marking cells that take only the lower or upper branch of a blend
+    public static final float LOWER = -1F;
+    public static final float UPPER = 2F;
+
+    private static final int SCRATCH_DEPTH = 8;
+    private static final ObjectPool<CellBlock> POOL = new ObjectPool<>(8, CellBlock::new);
+
+    public final Cell[] cells = new Cell[AREA];
+    public final float[] x = new float[AREA];
+    public final float[] z = new float[AREA];
+
+    private float[][] floats = new float[SCRATCH_DEPTH][];
+    private Terrain[][] terrains = new Terrain[SCRATCH_DEPTH][];
+    private int floatDepth = 0;
+    private int terrainDepth = 0;
+
+    public CellBlock() {
+        for (int i = 0; i < AREA; i++) {
+            cells[i] = new Cell();
+        }
+    }
+
+    // resets the cells & positions them at the block coordinates of a chunk
+    public CellBlock init(int blockX, int blockZ) {
+        for (int dz = 0, i = 0; dz < SIZE; dz++) {
+            for (int dx = 0; dx < SIZE; dx++, i++) {
+                cells[i].reset();
+                x[i] = blockX + dx;
+                z[i] = blockZ + dz;
+            }
+        }
+        return this;
+    }
+
+    // as above but with the block coordinates scaled & translated
+    public CellBlock init(int blockX, int blockZ, float zoom, float translateX, float translateZ) {
+        for (int dz = 0, i = 0; dz < SIZE; dz++) {
+            for (int dx = 0; dx < SIZE; dx++, i++) {
+                cells[i].reset();
+                x[i] = ((blockX + dx) * zoom) + translateX;
+                z[i] = ((blockZ + dz) * zoom) + translateZ;
+            }
+        }
+        return this;
+    }
+
+    // the per-cell fallback for populators without a block implementation
+    public void applyEach(Populator populator) {
+        for (int i = 0; i < AREA; i++) {
+            populator.apply(cells[i], x[i], z[i]);
+        }
+    }
+
+    // evaluates a blend of two populators across the block. alpha holds, for each cell, either LOWER, UPPER or
+    // the lerp factor between the two. uniform blocks are passed straight to the one populator that's needed,
+    // otherwise both are evaluated block-wise & the results combined per cell. cells only taking the upper
+    // branch have their terrain reset before it runs so that every cell ends up exactly as it would have if
+    // evaluated individually. lowerTerrains receives the lower branch's terrain for each cell
+    public void blend(Populator lower, Populator upper, float[] alpha, Terrain[] lowerTerrains) {
+        int lowerCount = 0;
+        int upperCount = 0;
+        for (int i = 0; i < AREA; i++) {
+            if (alpha[i] == LOWER) {
+                lowerCount++;
+            } else if (alpha[i] == UPPER) {
+                upperCount++;
+            }
+        }
+
+        if (lowerCount == AREA) {
+            lower.applyBlock(this);
+            return;
+        }
+
+        if (upperCount == AREA) {
+            upper.applyBlock(this);
+            return;
+        }
+
+        float[] lowerValues = pushFloats();
+        Terrain[] initial = pushTerrains();
+        for (int i = 0; i < AREA; i++) {
+            initial[i] = cells[i].terrain;
+        }
+
+        lower.applyBlock(this);
+
+        for (int i = 0; i < AREA; i++) {
+            Cell cell = cells[i];
+            lowerValues[i] = cell.value;
+            lowerTerrains[i] = cell.terrain;
+            if (alpha[i] == UPPER) {
+                cell.terrain = initial[i];
+            }
+        }
+
+        upper.applyBlock(this);
+
+        for (int i = 0; i < AREA; i++) {
+            Cell cell = cells[i];
+            if (alpha[i] == LOWER) {
+                cell.value = lowerValues[i];
+                cell.terrain = lowerTerrains[i];
+            } else if (alpha[i] != UPPER) {
+                cell.value = NoiseUtil.lerp(lowerValues[i], cell.value, alpha[i]);
+            }
+        }
+
+        popTerrains();
+        popFloats();
+    }
+
+    public float[] pushFloats() {
+        if (floatDepth == floats.length) {
+            floats = Arrays.copyOf(floats, floatDepth * 2);
+        }
+        float[] array = floats[floatDepth];
+        if (array == null) {
+            floats[floatDepth] = array = new float[AREA];
+        }
+        floatDepth++;
+        return array;
+    }
+
+    public void popFloats() {
+        floatDepth--;
+    }
+
+    public Terrain[] pushTerrains() {
+        if (terrainDepth == terrains.length) {
+            terrains = Arrays.copyOf(terrains, terrainDepth * 2);
+        }
+        Terrain[] array = terrains[terrainDepth];
+        if (array == null) {
+            terrains[terrainDepth] = array = new Terrain[AREA];
+        }
+        terrainDepth++;
+        return array;
+    }
+
+    public void popTerrains() {
+        terrainDepth--;
+    }
+
+    public static Resource<CellBlock> pooled() {
+        // prefer obtaining a block from ContextualThreads
+        Thread current = Thread.currentThread();
+        if (current instanceof ContextualThread) {
+            return ((ContextualThread) current).getContext().block;
+        }
+        return POOL.get();
+    }
+}
@@ -0,0 +1,476 @@
+package com.terraforged.core.cell;
+
+import com.terraforged.world.biome.BiomeType;
+import com.terraforged.world.terrain.Terrain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+// stores the fields of a fixed number of cells column-wise (ie one primitive column per field) rather than as
+// individual Cell objects. cells are read/written by copying to/from a 'cursor' Cell via load/store, or
+// field-by-field via the accessors (which is what the filters use)
+public abstract class CellBuffer {
+
+    // int columns
+    static final int CONTINENT_X = 0;
+    static final int CONTINENT_Z = 1;
+    // packs the terrain palette index (bits 0-15), biome type (bits 16-23) & erosion mask (bit 24)
+    static final int FLAGS = 2;
+    static final int INT_COLUMNS = 3;
+
+    // float columns
+    private static final int CONTINENT_EDGE = 0;
+    private static final int CONTINENT_IDENTITY = 1;
+    private static final int TERRAIN_REGION_EDGE = 2;
+    private static final int TERRAIN_REGION_IDENTITY = 3;
+    private static final int BIOME_EDGE = 4;
+    private static final int BIOME_IDENTITY = 5;
+    private static final int RIVER_MASK = 6;
+    private static final int VALUE = 7;
+    private static final int MOISTURE = 8;
+    private static final int TEMPERATURE = 9;
+    private static final int MACRO_NOISE = 10;
+    private static final int GRADIENT = 11;
+    private static final int EROSION = 12;
+    private static final int SEDIMENT = 13;
+    static final int FLOAT_COLUMNS = 14;
+
+    static final int TERRAIN_MASK = 0xFFFF;
+    static final int BIOME_SHIFT = 16;
+    static final int BIOME_MASK = 0xFF << BIOME_SHIFT;
+    static final int EROSION_MASK = 1 << 24;
+
+    public static final int BYTES_PER_CELL = (INT_COLUMNS * Integer.BYTES) + (FLOAT_COLUMNS * Float.BYTES);
+
+    private static final BiomeType[] BIOME_TYPES = BiomeType.values();
+    private static final Terrain[] EMPTY_PALETTE = {Terrain.NONE};
+    private static final int DEFAULT_FLAGS = BiomeType.GRASSLAND.ordinal() << BIOME_SHIFT;
+
+    protected final int capacity;
+
+    // terrain instances aren't globally indexed so each buffer keeps its own (small) palette of them
+    private final Object paletteLock = new Object();
+    private volatile Terrain[] palette = EMPTY_PALETTE;
+
+    protected CellBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public abstract boolean isDirect();
+
+    protected abstract int getInt(int column, int index);
+
+    protected abstract void setInt(int column, int index, int value);
+
+    protected abstract void fillInt(int column, int value);
+
+    protected abstract float getFloat(int column, int index);
+
+    protected abstract void setFloat(int column, int index, float value);
+
+    protected abstract void fillFloat(int column, float value);
+
+    protected abstract void readFloats(int column, float[] dest, int size);
+
+    protected abstract void writeFloats(int column, float[] src, int size);
+
+    // resets every cell to the same defaults as a new Cell
+    public void clear() {
+        fillInt(CONTINENT_X, 0);
+        fillInt(CONTINENT_Z, 0);
+        fillInt(FLAGS, DEFAULT_FLAGS);
+        fillFloat(CONTINENT_EDGE, 0F);
+        fillFloat(CONTINENT_IDENTITY, 0F);
+        fillFloat(TERRAIN_REGION_EDGE, 0F);
+        fillFloat(TERRAIN_REGION_IDENTITY, 0F);
+        fillFloat(BIOME_EDGE, 1F);
+        fillFloat(BIOME_IDENTITY, 0F);
+        fillFloat(RIVER_MASK, 1F);
+        fillFloat(VALUE, 0F);
+        fillFloat(MOISTURE, 0.5F);
+        fillFloat(TEMPERATURE, 0.5F);
+        fillFloat(MACRO_NOISE, 0F);
+        fillFloat(GRADIENT, 0F);
+        fillFloat(EROSION, 0F);
+        fillFloat(SEDIMENT, 0F);
+        palette = EMPTY_PALETTE;
+    }
+
+    public Cell load(int index, Cell cell) {
+        int flags = getInt(FLAGS, index);
+        cell.continentX = getInt(CONTINENT_X, index);
+        cell.continentZ = getInt(CONTINENT_Z, index);
+        cell.continentEdge = getFloat(CONTINENT_EDGE, index);
+        cell.continentIdentity = getFloat(CONTINENT_IDENTITY, index);
+        cell.terrainRegionEdge = getFloat(TERRAIN_REGION_EDGE, index);
+        cell.terrainRegionIdentity = getFloat(TERRAIN_REGION_IDENTITY, index);
+        cell.terrain = palette[flags & TERRAIN_MASK];
+        cell.biomeEdge = getFloat(BIOME_EDGE, index);
+        cell.biomeIdentity = getFloat(BIOME_IDENTITY, index);
+        cell.riverMask = getFloat(RIVER_MASK, index);
+        cell.erosionMask = (flags & EROSION_MASK) != 0;
+        cell.value = getFloat(VALUE, index);
+        cell.moisture = getFloat(MOISTURE, index);
+        cell.temperature = getFloat(TEMPERATURE, index);
+        cell.biomeType = BIOME_TYPES[(flags & BIOME_MASK) >>> BIOME_SHIFT];
+        cell.macroNoise = getFloat(MACRO_NOISE, index);
+        cell.gradient = getFloat(GRADIENT, index);
+        cell.erosion = getFloat(EROSION, index);
+        cell.sediment = getFloat(SEDIMENT, index);
+        return cell;
+    }
+
+    public void store(int index, Cell cell) {
+        int flags = paletteIndex(cell.terrain) | (cell.biomeType.ordinal() << BIOME_SHIFT);
+        if (cell.erosionMask) {
+            flags |= EROSION_MASK;
+        }
+        setInt(FLAGS, index, flags);
+        setInt(CONTINENT_X, index, cell.continentX);
+        setInt(CONTINENT_Z, index, cell.continentZ);
+        setFloat(CONTINENT_EDGE, index, cell.continentEdge);
+        setFloat(CONTINENT_IDENTITY, index, cell.continentIdentity);
+        setFloat(TERRAIN_REGION_EDGE, index, cell.terrainRegionEdge);
+        setFloat(TERRAIN_REGION_IDENTITY, index, cell.terrainRegionIdentity);
+        setFloat(BIOME_EDGE, index, cell.biomeEdge);
+        setFloat(BIOME_IDENTITY, index, cell.biomeIdentity);
+        setFloat(RIVER_MASK, index, cell.riverMask);
+        setFloat(VALUE, index, cell.value);
+        setFloat(MOISTURE, index, cell.moisture);
+        setFloat(TEMPERATURE, index, cell.temperature);
+        setFloat(MACRO_NOISE, index, cell.macroNoise);
+        setFloat(GRADIENT, index, cell.gradient);
+        setFloat(EROSION, index, cell.erosion);
+        setFloat(SEDIMENT, index, cell.sediment);
+    }
+
+    public Terrain[] getPalette() {
+        return palette;
+    }
+
+    // replaces the palette that stored terrain indices refer to, ie when loading previously written columns
+    public void setPalette(Terrain[] palette) {
+        if (palette.length == 0 || palette[0] != Terrain.NONE) {
+            throw new IllegalArgumentException("Palette must start with Terrain.NONE");
+        }
+        this.palette = palette;
+    }
+
+    // copies the raw column data for the first 'size' cells to the output buffer (size * BYTES_PER_CELL bytes)
+    public void writeColumns(ByteBuffer out, int size) {
+        for (int column = 0; column < INT_COLUMNS; column++) {
+            for (int i = 0; i < size; i++) {
+                out.putInt(getInt(column, i));
+            }
+        }
+        for (int column = 0; column < FLOAT_COLUMNS; column++) {
+            for (int i = 0; i < size; i++) {
+                out.putFloat(getFloat(column, i));
+            }
+        }
+    }
+
+    // copies the first 'size' cells, and the palette, into the other buffer
+    public void copyTo(CellBuffer dest, int size) {
+        for (int column = 0; column < INT_COLUMNS; column++) {
+            for (int i = 0; i < size; i++) {
+                dest.setInt(column, i, getInt(column, i));
+            }
+        }
+        for (int column = 0; column < FLOAT_COLUMNS; column++) {
+            for (int i = 0; i < size; i++) {
+                dest.setFloat(column, i, getFloat(column, i));
+            }
+        }
+        // palettes are replaced rather than modified when they grow so can be shared
+        dest.palette = palette;
+    }
+
+    // the inverse of writeColumns. the palette must be set separately
+    public void readColumns(ByteBuffer in, int size) {
+        for (int column = 0; column < INT_COLUMNS; column++) {
+            for (int i = 0; i < size; i++) {
+                setInt(column, i, in.getInt());
+            }
+        }
+        for (int column = 0; column < FLOAT_COLUMNS; column++) {
+            for (int i = 0; i < size; i++) {
+                setFloat(column, i, in.getFloat());
+            }
+        }
+    }
+
+    // bulk copies of whole columns for filters that work on primitive arrays
+    public void readValues(float[] dest, int size) {
+        readFloats(VALUE, dest, size);
+    }
+
+    public void writeValues(float[] src, int size) {
+        writeFloats(VALUE, src, size);
+    }
+
+    public void writeGradients(float[] src, int size) {
+        writeFloats(GRADIENT, src, size);
+    }
+
+    public void readErosion(float[] dest, int size) {
+        readFloats(EROSION, dest, size);
+    }
+
+    public void writeErosion(float[] src, int size) {
+        writeFloats(EROSION, src, size);
+    }
+
+    public void readSediment(float[] dest, int size) {
+        readFloats(SEDIMENT, dest, size);
+    }
+
+    public void writeSediment(float[] src, int size) {
+        writeFloats(SEDIMENT, src, size);
+    }
+
+    public float getValue(int index) {
+        return getFloat(VALUE, index);
+    }
+
+    public void setValue(int index, float value) {
+        setFloat(VALUE, index, value);
+    }
+
+    public float getContinentEdge(int index) {
+        return getFloat(CONTINENT_EDGE, index);
+    }
+
+    public float getTerrainRegionEdge(int index) {
+        return getFloat(TERRAIN_REGION_EDGE, index);
+    }
+
+    public float getRiverMask(int index) {
+        return getFloat(RIVER_MASK, index);
+    }
+
+    public boolean getErosionMask(int index) {
+        return (getInt(FLAGS, index) & EROSION_MASK) != 0;
+    }
+
+    public float getGradient(int index) {
+        return getFloat(GRADIENT, index);
+    }
+
+    public void setGradient(int index, float gradient) {
+        setFloat(GRADIENT, index, gradient);
+    }
+
+    public float getErosion(int index) {
+        return getFloat(EROSION, index);
+    }
+
+    public void setErosion(int index, float erosion) {
+        setFloat(EROSION, index, erosion);
+    }
+
+    public float getSediment(int index) {
+        return getFloat(SEDIMENT, index);
+    }
+
+    public void setSediment(int index, float sediment) {
+        setFloat(SEDIMENT, index, sediment);
+    }
+
+    public BiomeType getBiomeType(int index) {
+        return BIOME_TYPES[(getInt(FLAGS, index) & BIOME_MASK) >>> BIOME_SHIFT];
+    }
+
+    public void setBiomeType(int index, BiomeType type) {
+        int flags = getInt(FLAGS, index) & ~BIOME_MASK;
+        setInt(FLAGS, index, flags | (type.ordinal() << BIOME_SHIFT));
+    }
+
+    public Terrain getTerrain(int index) {
+        return palette[getInt(FLAGS, index) & TERRAIN_MASK];
+    }
+
+    public void setTerrain(int index, Terrain terrain) {
+        int flags = getInt(FLAGS, index) & ~TERRAIN_MASK;
+        setInt(FLAGS, index, flags | paletteIndex(terrain));
+    }
+
+    private int paletteIndex(Terrain terrain) {
+        Terrain[] palette = this.palette;
+        for (int i = 0; i < palette.length; i++) {
+            if (palette[i] == terrain) {
+                return i;
+            }
+        }
+
+        // cells are written from multiple threads during batched generation so additions must be synchronized.
+        // readers only ever see a fully populated copy of the palette
+        synchronized (paletteLock) {
+            palette = this.palette;
+            for (int i = 0; i < palette.length; i++) {
+                if (palette[i] == terrain) {
+                    return i;
+                }
+            }
+
+            if (palette.length > TERRAIN_MASK) {
+                throw new IllegalStateException("Terrain palette is full");
+            }
+
+            Terrain[] expanded = Arrays.copyOf(palette, palette.length + 1);
+            expanded[palette.length] = terrain;
+            this.palette = expanded;
+            return palette.length;
+        }
+    }
+
+    public static CellBuffer heap(int capacity) {
+        return new Heap(capacity);
+    }
+
+    // the page must hold at least capacity * BYTES_PER_CELL bytes
+    public static CellBuffer direct(ByteBuffer page, int capacity) {
+        return new Direct(page, capacity);
+    }
+
+    private static class Heap extends CellBuffer {
+
+        private final int[][] ints;
+        private final float[][] floats;
+
+        private Heap(int capacity) {
+            super(capacity);
+            this.ints = new int[INT_COLUMNS][capacity];
+            this.floats = new float[FLOAT_COLUMNS][capacity];
+            clear();
+        }
+
+        @Override
+        public boolean isDirect() {
+            return false;
+        }
+
+        @Override
+        protected int getInt(int column, int index) {
+            return ints[column][index];
+        }
+
+        @Override
+        protected void setInt(int column, int index, int value) {
+            ints[column][index] = value;
+        }
+
+        @Override
+        protected void fillInt(int column, int value) {
+            Arrays.fill(ints[column], value);
+        }
+
+        @Override
+        protected float getFloat(int column, int index) {
+            return floats[column][index];
+        }
+
+        @Override
+        protected void setFloat(int column, int index, float value) {
+            floats[column][index] = value;
+        }
+
+        @Override
+        protected void fillFloat(int column, float value) {
+            Arrays.fill(floats[column], value);
+        }
+
+        @Override
+        protected void readFloats(int column, float[] dest, int size) {
+            System.arraycopy(floats[column], 0, dest, 0, size);
+        }
+
+        @Override
+        protected void writeFloats(int column, float[] src, int size) {
+            System.arraycopy(src, 0, floats[column], 0, size);
+        }
+    }
+
+    // columns are laid out back-to-back in a single (typically off-heap) page: ints first, then floats
+    private static class Direct extends CellBuffer {
+
+        private final ByteBuffer page;
+        private final int floatsOffset;
+
+        private Direct(ByteBuffer page, int capacity) {
+            super(capacity);
+            if (page.capacity() < capacity * BYTES_PER_CELL) {
+                throw new IllegalArgumentException("Page is too small for " + capacity + " cells");
+            }
+            this.page = page.order(ByteOrder.nativeOrder());
+            this.floatsOffset = INT_COLUMNS * capacity;
+            clear();
+        }
+
+        @Override
+        public boolean isDirect() {
+            return page.isDirect();
+        }
+
+        @Override
+        protected int getInt(int column, int index) {
+            return page.getInt((column * capacity + index) << 2);
+        }
+
+        @Override
+        protected void setInt(int column, int index, int value) {
+            page.putInt((column * capacity + index) << 2, value);
+        }
+
+        @Override
+        protected void fillInt(int column, int value) {
+            for (int i = 0, offset = (column * capacity) << 2; i < capacity; i++, offset += 4) {
+                page.putInt(offset, value);
+            }
+        }
+
+        @Override
+        protected float getFloat(int column, int index) {
+            return page.getFloat((floatsOffset + column * capacity + index) << 2);
+        }
+
+        @Override
+        protected void setFloat(int column, int index, float value) {
+            page.putFloat((floatsOffset + column * capacity + index) << 2, value);
+        }
+
+        @Override
+        protected void fillFloat(int column, float value) {
+            for (int i = 0, offset = (floatsOffset + column * capacity) << 2; i < capacity; i++, offset += 4) {
+                page.putFloat(offset, value);
+            }
+        }
+
+        @Override
+        protected void readFloats(int column, float[] dest, int size) {
+            FloatBuffer floats = floats();
+            floats.position(floatsOffset + column * capacity);
+            floats.get(dest, 0, size);
+        }
+
+        @Override
+        protected void writeFloats(int column, float[] src, int size) {
+            FloatBuffer floats = floats();
+            floats.position(floatsOffset + column * capacity);
+            floats.put(src, 0, size);
+        }
+
+        // a float view over the whole page that doesn't disturb the page's own position/limit
+        private FloatBuffer floats() {
+            ByteBuffer view = page.duplicate();
+            view.clear();
+            return view.order(page.order()).asFloatBuffer();
+        }
+    }
+}
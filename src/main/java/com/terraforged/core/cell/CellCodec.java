@@ -0,0 +1,284 @@
+package com.terraforged.core.cell;
+
+import com.terraforged.world.biome.BiomeType;
+import com.terraforged.world.terrain.Terrain;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// a compact binary encoding of the cells in a CellBuffer:
+// - float columns are quantized to 16 bits over the column's own min-max range, so the error for any value is at
+//   most (max - min) / 131070 (ie ~0.0000076 for values in the usual 0-1 range)
+// - terrains & biome types are written as indices into per-buffer palettes of their names
+// - every column is delta-coded along each row (the first value in a row against the first of the previous row)
+//   and written as zig-zag varints
+// - the result is deflated (at BEST_SPEED)
+public class CellCodec {
+
+    private static final int VERSION = 1;
+    private static final int QUANTIZE = 0xFFFF;
+
+    public static byte[] encode(CellBuffer cells, int width, int size) {
+        if (size % width != 0 || size > cells.capacity()) {
+            throw new IllegalArgumentException("Invalid size " + size + " for width " + width);
+        }
+
+        Output out = new Output(size * 4);
+        out.writeVarInt(VERSION);
+        out.writeVarInt(width);
+        out.writeVarInt(size);
+
+        Terrain[] terrains = cells.getPalette();
+        out.writeVarInt(terrains.length);
+        for (Terrain terrain : terrains) {
+            out.writeString(terrain.getName());
+        }
+
+        // only the biome types that are present are written to the palette
+        BiomeType[] types = BiomeType.values();
+        int[] biomeIndices = new int[types.length];
+        int biomeCount = 0;
+        for (int i = 0; i < size; i++) {
+            int ordinal = (cells.getInt(CellBuffer.FLAGS, i) & CellBuffer.BIOME_MASK) >>> CellBuffer.BIOME_SHIFT;
+            if (biomeIndices[ordinal] == 0) {
+                biomeIndices[ordinal] = ++biomeCount;
+            }
+        }
+        out.writeVarInt(biomeCount);
+        for (int ordinal = 0; ordinal < types.length; ordinal++) {
+            if (biomeIndices[ordinal] != 0) {
+                out.writeVarInt(biomeIndices[ordinal] - 1);
+                out.writeString(types[ordinal].name());
+            }
+        }
+
+        int[] column = new int[size];
+        for (int c = 0; c < CellBuffer.FLAGS; c++) {
+            for (int i = 0; i < size; i++) {
+                column[i] = cells.getInt(c, i);
+            }
+            writeDeltas(out, column, width, size);
+        }
+
+        // repack the flags as (terrain << 9) | (biome palette index << 1) | erosion mask
+        for (int i = 0; i < size; i++) {
+            int flags = cells.getInt(CellBuffer.FLAGS, i);
+            int terrain = flags & CellBuffer.TERRAIN_MASK;
+            int biome = biomeIndices[(flags & CellBuffer.BIOME_MASK) >>> CellBuffer.BIOME_SHIFT] - 1;
+            int mask = (flags & CellBuffer.EROSION_MASK) != 0 ? 1 : 0;
+            column[i] = (terrain << 9) | (biome << 1) | mask;
+        }
+        writeDeltas(out, column, width, size);
+
+        for (int c = 0; c < CellBuffer.FLOAT_COLUMNS; c++) {
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                float value = cells.getFloat(c, i);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+
+            float range = max - min;
+            out.writeInt(Float.floatToIntBits(min));
+            out.writeInt(Float.floatToIntBits(range));
+            for (int i = 0; i < size; i++) {
+                column[i] = range == 0 ? 0 : Math.round(((cells.getFloat(c, i) - min) / range) * QUANTIZE);
+            }
+            writeDeltas(out, column, width, size);
+        }
+
+        return out.deflate();
+    }
+
+    // the buffer's capacity must be at least the encoded size
+    public static void decode(byte[] data, CellBuffer cells, Function<String, Terrain> terrains) throws IOException {
+        Input in = Input.inflate(data);
+        if (in.readVarInt() != VERSION) {
+            throw new IOException("Unsupported version");
+        }
+
+        int width = in.readVarInt();
+        int size = in.readVarInt();
+        if (size > cells.capacity()) {
+            throw new IOException("Encoded size " + size + " exceeds buffer capacity " + cells.capacity());
+        }
+
+        Terrain[] palette = new Terrain[in.readVarInt()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = terrains.apply(in.readString());
+        }
+
+        BiomeType[] biomes = new BiomeType[in.readVarInt()];
+        for (int i = 0; i < biomes.length; i++) {
+            int index = in.readVarInt();
+            biomes[index] = BiomeType.valueOf(in.readString());
+        }
+
+        int[] column = new int[size];
+        for (int c = 0; c < CellBuffer.FLAGS; c++) {
+            readDeltas(in, column, width, size);
+            for (int i = 0; i < size; i++) {
+                cells.setInt(c, i, column[i]);
+            }
+        }
+
+        readDeltas(in, column, width, size);
+        for (int i = 0; i < size; i++) {
+            int packed = column[i];
+            int terrain = packed >>> 9;
+            int biome = biomes[(packed >>> 1) & 0xFF].ordinal();
+            int flags = terrain | (biome << CellBuffer.BIOME_SHIFT);
+            if ((packed & 1) != 0) {
+                flags |= CellBuffer.EROSION_MASK;
+            }
+            cells.setInt(CellBuffer.FLAGS, i, flags);
+        }
+
+        for (int c = 0; c < CellBuffer.FLOAT_COLUMNS; c++) {
+            float min = Float.intBitsToFloat(in.readInt());
+            float range = Float.intBitsToFloat(in.readInt());
+            readDeltas(in, column, width, size);
+            for (int i = 0; i < size; i++) {
+                cells.setFloat(c, i, min + (column[i] / (float) QUANTIZE) * range);
+            }
+        }
+
+        cells.setPalette(palette);
+    }
+
+    private static void writeDeltas(Output out, int[] column, int width, int size) {
+        for (int row = 0; row < size; row += width) {
+            int prev = row == 0 ? 0 : column[row - width];
+            for (int i = row, end = row + width; i < end; i++) {
+                out.writeSignedVarInt(column[i] - prev);
+                prev = column[i];
+            }
+        }
+    }
+
+    private static void readDeltas(Input in, int[] column, int width, int size) throws IOException {
+        for (int row = 0; row < size; row += width) {
+            int prev = row == 0 ? 0 : column[row - width];
+            for (int i = row, end = row + width; i < end; i++) {
+                prev += in.readSignedVarInt();
+                column[i] = prev;
+            }
+        }
+    }
+
+    private static class Output extends ByteArrayOutputStream {
+
+        private Output(int size) {
+            super(size);
+        }
+
+        private void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        private void writeSignedVarInt(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        private byte[] deflate() {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                ByteArrayOutputStream result = new ByteArrayOutputStream(count / 2);
+                try (DeflaterOutputStream stream = new DeflaterOutputStream(result, deflater, 8192)) {
+                    writeTo(stream);
+                }
+                return result.toByteArray();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    private static class Input {
+
+        private final byte[] data;
+        private final int length;
+        private int position = 0;
+
+        private Input(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        private int read() throws IOException {
+            if (position >= length) {
+                throw new IOException("Unexpected end of data");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        private int readInt() throws IOException {
+            return (read() << 24) | (read() << 16) | (read() << 8) | read();
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = read();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        private int readSignedVarInt() throws IOException {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private String readString() throws IOException {
+            int length = readVarInt();
+            if (position + length > this.length) {
+                throw new IOException("Unexpected end of data");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private static Input inflate(byte[] data) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            try (InputStream in = new InflaterInputStream(new java.io.ByteArrayInputStream(data))) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new Input(out.toByteArray(), out.size());
+        }
+    }
+}
@@ -32,6 +32,12 @@ public interface Populator extends Module {
 
     void apply(Cell cell, float x, float y);
 
+    // evaluates every cell in the block. populators that are part of the heightmap graph override this to
+    // evaluate their children block-wise rather than walking the graph per cell
+    default void applyBlock(CellBlock block) {
+        block.applyEach(this);
+    }
+
     @Override
     default float getValue(float x, float z) {
         try (Resource<Cell> cell = Cell.pooled()) {
@@ -44,9 +44,9 @@ public class ForkJoinBatcher implements Batcher {
 
     @Override
     public void size(int newSize) {
+        count = 0;
+        size = newSize;
         if (tasks.length < newSize) {
-            count = 0;
-            size = newSize;
             tasks = new ForkJoinTask[newSize];
         }
     }
@@ -60,9 +60,10 @@ public class ForkJoinBatcher implements Batcher {
 
     @Override
     public void close() {
-        for (int i = 0; i < size; i++) {
+        for (int i = 0; i < count; i++) {
             tasks[i].quietlyJoin();
             tasks[i] = null;
         }
+        count = 0;
     }
 }
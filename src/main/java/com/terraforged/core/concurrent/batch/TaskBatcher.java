@@ -63,11 +63,15 @@ public class TaskBatcher implements Batcher, BatchTask.Notifier, Resource<Batche
         if (submitted <= 0) {
             return;
         }
+        // tasks may all complete before we get here so only wait while some are outstanding
         synchronized (lock) {
-            try {
-                lock.wait();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+            while (count.get() < size) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                    return;
+                }
             }
         }
     }
@@ -2,18 +2,50 @@ package com.terraforged.core.concurrent.cache;
 
 import com.terraforged.core.concurrent.thread.ThreadPool;
 import com.terraforged.core.concurrent.thread.ThreadPools;
+import com.terraforged.core.util.metric.MetricCollector;
+import com.terraforged.core.util.metric.MetricSource;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.LongFunction;
 
-public class Cache<V extends ExpiringEntry> implements Runnable {
+public class Cache<V extends ExpiringEntry> implements Runnable, MetricSource {
+
+    // the share (in percent) of a bounded cache's capacity that holds the most recently inserted entries. it's
+    // larger than is usual for W-TinyLFU as tile caches hold few entries & neighbour prefetching inserts several
+    // at once
+    private static final int WINDOW_PERCENT = 10;
 
     private final long expireMS;
     private final long intervalMS;
-    private final SynchronizedLongMap<V> map;
+    private final ConcurrentLongMap<V> map;
+    private final CapacityPolicy<V> policy;
+    private final FrequencySketch sketch;
     private final ThreadPool threadPool = ThreadPools.getUtilPool();
 
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final AtomicBoolean inserted = new AtomicBoolean();
+    private final Runnable evictor = this::evict;
+
+    // the insertion sequence of each key, & the sequence each key was admitted to the main region at (evictor only).
+    // an entry is in the main region while its admitted sequence matches its current one, otherwise in the window
+    private final Long2LongMap insertions = new Long2LongOpenHashMap();
+    private final Long2LongMap admitted = new Long2LongOpenHashMap();
+    private long sequence = 0L;
+
     private volatile long timestamp = 0L;
 
     public Cache(long expireTime, long interval, TimeUnit unit) {
@@ -21,29 +53,105 @@ public class Cache<V extends ExpiringEntry> implements Runnable {
     }
 
     public Cache(int capacity, long expireTime, long interval, TimeUnit unit) {
+        this(capacity, expireTime, interval, unit, CapacityPolicy.unbounded());
+    }
+
+    public Cache(int capacity, long expireTime, long interval, TimeUnit unit, CapacityPolicy<V> policy) {
         this.expireMS = unit.toMillis(expireTime);
         this.intervalMS = unit.toMillis(interval);
-        this.map = new SynchronizedLongMap<>(capacity);
+        this.map = new ConcurrentLongMap<>(capacity);
+        this.policy = policy;
+        this.sketch = policy.isBounded() ? new FrequencySketch(capacity) : null;
+    }
+
+    public CacheStats getStats() {
+        long misses = this.misses.sum();
+        long hits = requests.sum() - misses;
+        return new CacheStats(hits, misses, evictions.sum(), map.size());
+    }
+
+    @Override
+    public void collect(MetricCollector collector) {
+        CacheStats stats = getStats();
+        collector.collect("hits", stats.hits);
+        collector.collect("misses", stats.misses);
+        collector.collect("evictions", stats.evictions);
+        collector.collect("size", stats.size);
     }
 
     public void remove(long key) {
         map.remove(key, V::close);
     }
 
+    public void clear() {
+        map.removeIf(v -> true, V::close);
+    }
+
+    // removes the entry only if it is still the expected one
+    public boolean remove(long key, V expected) {
+        return map.remove(key, expected, V::close);
+    }
+
+    // swaps in a new value for the entry if it is still the expected one. the new value is left to the caller if not
+    public boolean replace(long key, V expected, V value) {
+        if (map.replace(key, expected, value)) {
+            expected.close();
+            return true;
+        }
+        return false;
+    }
+
+    // visits the entries present at the time of the call, outside of the map's locks
+    public void forEach(ConcurrentLongMap.Visitor<V> visitor) {
+        LongArrayList keys = new LongArrayList();
+        List<V> values = new ArrayList<>();
+        map.forEach((key, value) -> {
+            keys.add(key);
+            values.add(value);
+        });
+        for (int i = 0; i < keys.size(); i++) {
+            visitor.visit(keys.getLong(i), values.get(i));
+        }
+    }
+
     public V get(long key) {
-        return map.get(key);
+        V v = map.get(key);
+        record(key);
+        if (v == null) {
+            misses.increment();
+        }
+        return v;
     }
 
     public V computeIfAbsent(long key, LongFunction<V> func) {
-        V v = map.computeIfAbsent(key, func);
+        V v = map.computeIfAbsent(key, new Loader(func));
+        record(key);
         queueUpdate();
         return v;
     }
 
+    // the entry is pinned rather than locked while the mapper runs, so a mapper that waits (eg on an async entry)
+    // never holds up other readers or the expiry sweep. an entry that was closed before it could be pinned has
+    // already been removed, so it is looked up (or computed) again
     public <T> T map(long key, LongFunction<V> func, Function<V, T> mapper) {
-        T t = map.map(key, func, mapper);
-        queueUpdate();
-        return t;
+        while (true) {
+            V v = computeIfAbsent(key, func);
+            if (!v.retain()) {
+                continue;
+            }
+            try {
+                return mapper.apply(v);
+            } finally {
+                v.release();
+            }
+        }
+    }
+
+    private void record(long key) {
+        requests.increment();
+        if (sketch != null) {
+            sketch.increment(key);
+        }
     }
 
     private void queueUpdate() {
@@ -52,17 +160,174 @@ public class Cache<V extends ExpiringEntry> implements Runnable {
             timestamp = now;
             threadPool.submit(this);
         }
+
+        // only need to check the capacity after new entries have been added
+        if (policy.isBounded() && inserted.get() && evicting.compareAndSet(false, true)) {
+            inserted.set(false);
+            threadPool.submit(evictor);
+        }
     }
 
     @Override
     public void run() {
         final long now = timestamp;
-        map.removeIf(val -> {
-            if (now - val.getTimestamp() > expireMS) {
-                val.close();
-                return true;
+        map.removeIf(val -> now - val.getTimestamp() > expireMS, V::close);
+
+        // entries that were not evictable on insertion may have become so since
+        if (policy.isBounded() && evicting.compareAndSet(false, true)) {
+            evict();
+        }
+    }
+
+    // a batched W-TinyLFU: the newest entries (by insertion) are held in a window that is never evicted from while
+    // it's within its share of the capacity. entries that have aged out of the window either join the main region
+    // or, when the cache is over capacity, compete with the main region's victim (least frequent, then least
+    // recently used) & whichever has the lower sketch frequency is evicted. this keeps just-generated &
+    // prefetched tiles from being evicted ahead of stale ones that built up high counts earlier
+    private void evict() {
+        try {
+            // the map is visited outside of the insertions lock as loaders take that lock while holding the map's
+            LongArrayList keys = new LongArrayList();
+            List<V> values = new ArrayList<>();
+            map.forEach((key, value) -> {
+                keys.add(key);
+                values.add(value);
+            });
+
+            long total = 0L;
+            List<Candidate<V>> window = new ArrayList<>();
+            List<Candidate<V>> main = new ArrayList<>();
+            LongOpenHashSet live = new LongOpenHashSet(keys);
+            synchronized (insertions) {
+                for (int i = 0; i < keys.size(); i++) {
+                    long key = keys.getLong(i);
+                    V value = values.get(i);
+                    // a key without a sequence is still being inserted so counts as the newest
+                    long seq = insertions.getOrDefault(key, Long.MAX_VALUE);
+                    Candidate<V> candidate = new Candidate<>(key, value, sketch.frequency(key), policy.weigh(value), seq);
+                    total += candidate.weight;
+                    if (admitted.containsKey(key) && admitted.get(key) == seq) {
+                        main.add(candidate);
+                    } else {
+                        window.add(candidate);
+                    }
+                }
+                // forget keys that are no longer cached, other than those inserted since the map was visited
+                long visited = sequence;
+                insertions.long2LongEntrySet().removeIf(e -> e.getLongValue() <= visited && !live.contains(e.getLongKey()));
             }
-            return false;
-        });
+            for (LongIterator iterator = admitted.keySet().iterator(); iterator.hasNext(); ) {
+                if (!live.contains(iterator.nextLong())) {
+                    iterator.remove();
+                }
+            }
+
+            // newest first, the entries beyond the window's share are its victims, oldest first
+            window.sort((a, b) -> Long.compare(b.sequence, a.sequence));
+            long windowMax = policy.getMaxWeight() * WINDOW_PERCENT / 100;
+            long windowWeight = 0L;
+            int windowSize = 0;
+            while (windowSize < window.size()) {
+                long next = windowWeight + window.get(windowSize).weight;
+                if (windowSize > 0 && next > windowMax) {
+                    break;
+                }
+                windowWeight = next;
+                windowSize++;
+            }
+            List<Candidate<V>> windowVictims = new ArrayList<>(window.subList(windowSize, window.size()));
+            Collections.reverse(windowVictims);
+
+            // least frequently used first, then least recently used
+            List<Candidate<V>> mainVictims = new ArrayList<>();
+            for (Candidate<V> candidate : main) {
+                if (policy.canEvict(candidate.value)) {
+                    mainVictims.add(candidate);
+                }
+            }
+            mainVictims.sort((a, b) -> {
+                int order = Integer.compare(a.frequency, b.frequency);
+                if (order == 0) {
+                    return Long.compare(a.value.getTimestamp(), b.value.getTimestamp());
+                }
+                return order;
+            });
+
+            long excess = total - policy.getMaxWeight();
+            int mainIndex = 0;
+            for (Candidate<V> candidate : windowVictims) {
+                if (excess > 0 && policy.canEvict(candidate.value)) {
+                    Candidate<V> victim = mainIndex < mainVictims.size() ? mainVictims.get(mainIndex) : null;
+                    if (victim == null || candidate.frequency <= victim.frequency) {
+                        excess -= evict(candidate);
+                        continue;
+                    }
+                    mainIndex++;
+                    excess -= evict(victim);
+                }
+                admitted.put(candidate.key, candidate.sequence);
+            }
+
+            // still over capacity, eg the window alone exceeds its share: fall back to plain LFU over everything
+            for (; excess > 0 && mainIndex < mainVictims.size(); mainIndex++) {
+                excess -= evict(mainVictims.get(mainIndex));
+            }
+            for (int i = window.size() - 1; excess > 0 && i >= 0; i--) {
+                Candidate<V> candidate = window.get(i);
+                if (policy.canEvict(candidate.value)) {
+                    excess -= evict(candidate);
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // returns the weight freed
+    private long evict(Candidate<V> candidate) {
+        if (map.remove(candidate.key, candidate.value, V::close)) {
+            evictions.increment();
+            return candidate.weight;
+        }
+        return 0L;
+    }
+
+    // counts a miss whenever the map has to compute a new value
+    private class Loader implements LongFunction<V> {
+
+        private final LongFunction<V> func;
+
+        private Loader(LongFunction<V> func) {
+            this.func = func;
+        }
+
+        @Override
+        public V apply(long key) {
+            misses.increment();
+            inserted.set(true);
+            if (sketch != null) {
+                synchronized (insertions) {
+                    insertions.put(key, ++sequence);
+                }
+            }
+            return func.apply(key);
+        }
+    }
+
+    private static class Candidate<V> {
+
+        private final long key;
+        private final V value;
+        private final int frequency;
+        private final long weight;
+        private final long sequence;
+
+        private Candidate(long key, V value, int frequency, long weight, long sequence) {
+            this.key = key;
+            this.value = value;
+            this.frequency = frequency;
+            this.weight = weight;
+            this.sequence = sequence;
+        }
     }
 }
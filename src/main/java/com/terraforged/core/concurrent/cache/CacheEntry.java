@@ -5,13 +5,24 @@ import com.terraforged.core.concurrent.thread.ThreadPool;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 public class CacheEntry<T> implements ExpiringEntry {
 
+    private static final int CLOSING = 1 << 30;
+
     private volatile long timestamp;
     private volatile T value = null;
 
+    // the number of pins held, plus the CLOSING bit once closed. the value is closed by whichever of close() or
+    // the last release() sees no pins left after closing
+    private final AtomicInteger pins = new AtomicInteger();
+
+    // set once the value has been closed, so that it's closed exactly once
+    private final AtomicBoolean closed = new AtomicBoolean();
+
     private final Future<T> task;
 
     public CacheEntry(Future<T> task) {
@@ -24,8 +35,56 @@ public class CacheEntry<T> implements ExpiringEntry {
         return timestamp;
     }
 
+    @Override
+    public boolean retain() {
+        while (true) {
+            int count = pins.get();
+            if ((count & CLOSING) != 0) {
+                return false;
+            }
+            if (pins.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release() {
+        if (pins.decrementAndGet() == CLOSING) {
+            closeValue();
+        }
+    }
+
     @Override
     public void close() {
+        while (true) {
+            int count = pins.get();
+            if ((count & CLOSING) != 0) {
+                return;
+            }
+            if (pins.compareAndSet(count, count | CLOSING)) {
+                if (count == 0) {
+                    closeValue();
+                }
+                return;
+            }
+        }
+    }
+
+    // a value that isn't available yet is closed once it is (see complete)
+    private void closeValue() {
+        T value = this.value;
+        if (value == null && task.isDone()) {
+            // completed but never read, eg a pre-completed future
+            try {
+                value = this.value = task.get();
+            } catch (Throwable t) {
+                return;
+            }
+        }
+        if (value == null || !closed.compareAndSet(false, true)) {
+            return;
+        }
         if (value instanceof AutoCloseable) {
             try {
                 ((AutoCloseable) value).close();
@@ -40,20 +99,48 @@ public class CacheEntry<T> implements ExpiringEntry {
     }
 
     public T get() {
-        // update each time accessed
-        this.timestamp = System.currentTimeMillis();
+        return get(true);
+    }
+
+    private T get(boolean touch) {
+        if (touch) {
+            // update each time accessed
+            this.timestamp = System.currentTimeMillis();
+        }
 
         if (task instanceof ForkJoinTask) {
-            return value = ((ForkJoinTask<T>) task).join();
+            return complete(((ForkJoinTask<T>) task).join());
         }
 
         try {
-            return value = task.get();
+            return complete(task.get());
         } catch (Throwable t) {
             throw new RuntimeException(t);
         }
     }
 
+    // the value is published before the CLOSING bit is checked, & close() sets the bit before reading the value,
+    // so a value that completes after the entry was closed (eg removed while still generating) is still closed
+    private T complete(T value) {
+        this.value = value;
+        if (pins.get() == CLOSING) {
+            closeValue();
+        }
+        return value;
+    }
+
+    // returns the value if complete (or null if not/failed) without updating the timestamp
+    public T peek() {
+        if (value != null || !task.isDone()) {
+            return value;
+        }
+        try {
+            return get(false);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
     public <V> CacheEntry<V> then(ThreadPool executor, Function<T, V> function) {
         return supplyAsync(() -> function.apply(get()), executor);
     }
@@ -62,7 +149,43 @@ public class CacheEntry<T> implements ExpiringEntry {
         return new CacheEntry<>(task);
     }
 
+    // the task hands its value to the entry as soon as it completes, so that it can be closed if the entry was
+    // closed in the meantime, even if nothing ever calls get()
     public static <T> CacheEntry<T> supplyAsync(Callable<T> callable, ThreadPool executor) {
-        return new CacheEntry<>(executor.submit(callable));
+        Completion<T> completion = new Completion<>(callable);
+        CacheEntry<T> entry = new CacheEntry<>(executor.submit(completion));
+        completion.setEntry(entry);
+        return entry;
+    }
+
+    private static class Completion<T> implements Callable<T> {
+
+        private final Callable<T> callable;
+        private volatile T value;
+        private volatile CacheEntry<T> entry;
+
+        private Completion(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        // whichever of call() or setEntry() runs second sees both the value & the entry
+        private void setEntry(CacheEntry<T> entry) {
+            this.entry = entry;
+            T value = this.value;
+            if (value != null) {
+                entry.complete(value);
+            }
+        }
+
+        @Override
+        public T call() throws Exception {
+            T value = callable.call();
+            this.value = value;
+            CacheEntry<T> entry = this.entry;
+            if (entry != null) {
+                entry.complete(value);
+            }
+            return value;
+        }
     }
 }
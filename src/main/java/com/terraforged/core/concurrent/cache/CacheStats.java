@@ -0,0 +1,31 @@
+package com.terraforged.core.concurrent.cache;
+
+public class CacheStats {
+
+    public final long hits;
+    public final long misses;
+    public final long evictions;
+    public final int size;
+
+    public CacheStats(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public float hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1F : hits / (float) requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                '}';
+    }
+}
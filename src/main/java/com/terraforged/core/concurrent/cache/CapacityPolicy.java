@@ -0,0 +1,51 @@
+package com.terraforged.core.concurrent.cache;
+
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+// limits the total 'weight' of a Cache's entries. when exceeded, evictable entries are removed until the cache is
+// back within its limit: the most recently inserted entries are protected in a small window & the rest are evicted
+// by frequency (see Cache#evict)
+public class CapacityPolicy<V> {
+
+    private static final CapacityPolicy<?> UNBOUNDED = new CapacityPolicy<>(Long.MAX_VALUE, v -> 0L, v -> false);
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final Predicate<V> evictable;
+
+    private CapacityPolicy(long maxWeight, ToLongFunction<V> weigher, Predicate<V> evictable) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.evictable = evictable;
+    }
+
+    public boolean isBounded() {
+        return maxWeight != Long.MAX_VALUE;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long weigh(V value) {
+        return weigher.applyAsLong(value);
+    }
+
+    public boolean canEvict(V value) {
+        return evictable.test(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> CapacityPolicy<V> unbounded() {
+        return (CapacityPolicy<V>) UNBOUNDED;
+    }
+
+    public static <V> CapacityPolicy<V> entries(int maxEntries, Predicate<V> evictable) {
+        return new CapacityPolicy<>(maxEntries, v -> 1L, evictable);
+    }
+
+    public static <V> CapacityPolicy<V> weight(long maxWeight, ToLongFunction<V> weigher, Predicate<V> evictable) {
+        return new CapacityPolicy<>(maxWeight, weigher, evictable);
+    }
+}
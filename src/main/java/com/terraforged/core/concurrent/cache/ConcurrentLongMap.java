@@ -0,0 +1,291 @@
+package com.terraforged.core.concurrent.cache;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+// a long-keyed map split into independently locked stripes. readers share a stripe's read lock so never block
+// each other, and computeIfAbsent only locks to reserve the key - the compute itself runs without any lock held.
+// concurrent callers for the same key wait on the reservation rather than computing the value twice
+public class ConcurrentLongMap<V> {
+
+    private final int mask;
+    private final Stripe[] stripes;
+
+    public ConcurrentLongMap(int size) {
+        this(size, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ConcurrentLongMap(int size, int concurrency) {
+        int count = HashCommon.nextPowerOfTwo(Math.max(16, concurrency));
+        int stripeSize = Math.max(4, size / count);
+        this.mask = count - 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.map.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    public void remove(long key) {
+        remove(key, v -> {});
+    }
+
+    public void remove(long key, Consumer<V> consumer) {
+        Stripe stripe = stripe(key);
+        Object value;
+        stripe.lock.writeLock().lock();
+        try {
+            value = stripe.map.remove(key);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        if (value != null && !(value instanceof Pending)) {
+            consumer.accept(cast(value));
+        }
+    }
+
+    // removes the entry only if it is still mapped to the expected value
+    public boolean remove(long key, V expected, Consumer<V> consumer) {
+        Stripe stripe = stripe(key);
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.map.get(key) != expected) {
+                return false;
+            }
+            stripe.map.remove(key);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        consumer.accept(expected);
+        return true;
+    }
+
+    // replaces the entry only if it is still mapped to the expected value
+    public boolean replace(long key, V expected, V value) {
+        Stripe stripe = stripe(key);
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.map.get(key) != expected) {
+                return false;
+            }
+            stripe.map.put(key, value);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    public void put(long key, V v) {
+        Stripe stripe = stripe(key);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.map.put(key, v);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    public V get(long key) {
+        Stripe stripe = stripe(key);
+        Object value;
+        stripe.lock.readLock().lock();
+        try {
+            value = stripe.map.get(key);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+        return resolve(value);
+    }
+
+    public V computeIfAbsent(long key, LongFunction<V> func) {
+        Stripe stripe = stripe(key);
+
+        Object value;
+        stripe.lock.readLock().lock();
+        try {
+            value = stripe.map.get(key);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+
+        if (value == null) {
+            Pending<V> pending = null;
+            stripe.lock.writeLock().lock();
+            try {
+                value = stripe.map.get(key);
+                if (value == null) {
+                    pending = new Pending<>();
+                    stripe.map.put(key, pending);
+                }
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+
+            if (pending != null) {
+                return compute(stripe, key, pending, func);
+            }
+        }
+
+        return resolve(value);
+    }
+
+    // visits all computed entries, one stripe at a time under its read lock
+    public void forEach(Visitor<V> visitor) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                ObjectIterator<Long2ObjectMap.Entry<Object>> iterator = stripe.map.long2ObjectEntrySet().fastIterator();
+                while (iterator.hasNext()) {
+                    Long2ObjectMap.Entry<Object> entry = iterator.next();
+                    Object value = entry.getValue();
+                    if (!(value instanceof Pending)) {
+                        visitor.visit(entry.getLongKey(), cast(value));
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+    }
+
+    public void removeIf(Predicate<V> predicate) {
+        removeIf(predicate, v -> {});
+    }
+
+    // candidates are collected under each stripe's read lock and then re-tested & removed under a short write lock
+    // so that readers are only ever excluded from one stripe, briefly. the consumer is called outside of any lock
+    public void removeIf(Predicate<V> predicate, Consumer<V> consumer) {
+        List<V> removed = new ArrayList<>();
+        LongArrayList candidates = new LongArrayList();
+        for (Stripe stripe : stripes) {
+            candidates.clear();
+
+            stripe.lock.readLock().lock();
+            try {
+                ObjectIterator<Long2ObjectMap.Entry<Object>> iterator = stripe.map.long2ObjectEntrySet().fastIterator();
+                while (iterator.hasNext()) {
+                    Long2ObjectMap.Entry<Object> entry = iterator.next();
+                    Object value = entry.getValue();
+                    if (!(value instanceof Pending) && predicate.test(cast(value))) {
+                        candidates.add(entry.getLongKey());
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            stripe.lock.writeLock().lock();
+            try {
+                for (int i = 0; i < candidates.size(); i++) {
+                    long key = candidates.getLong(i);
+                    Object value = stripe.map.get(key);
+                    if (value != null && !(value instanceof Pending) && predicate.test(cast(value))) {
+                        stripe.map.remove(key);
+                        removed.add(cast(value));
+                    }
+                }
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+
+        for (V v : removed) {
+            consumer.accept(v);
+        }
+    }
+
+    private V compute(Stripe stripe, long key, Pending<V> pending, LongFunction<V> func) {
+        V value;
+        try {
+            value = func.apply(key);
+        } catch (Throwable t) {
+            stripe.lock.writeLock().lock();
+            try {
+                if (stripe.map.get(key) == pending) {
+                    stripe.map.remove(key);
+                }
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+            pending.completeExceptionally(t);
+            throw t;
+        }
+
+        stripe.lock.writeLock().lock();
+        try {
+            // the reservation may have been removed while computing in which case the value is not cached
+            if (stripe.map.get(key) == pending) {
+                stripe.map.put(key, value);
+            }
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+
+        pending.complete(value);
+        return value;
+    }
+
+    private Stripe stripe(long key) {
+        long hash = HashCommon.mix(key);
+        return stripes[(int) (hash ^ (hash >>> 32)) & mask];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V resolve(Object value) {
+        if (value instanceof Pending) {
+            return ((Pending<V>) value).join();
+        }
+        return (V) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(Object value) {
+        return (V) value;
+    }
+
+    private static class Stripe {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Long2ObjectOpenHashMap<Object> map;
+
+        private Stripe(int size) {
+            this.map = new Long2ObjectOpenHashMap<>(size);
+        }
+    }
+
+    public interface Visitor<V> {
+
+        void visit(long key, V value);
+    }
+
+    // placeholder for a value that is currently being computed
+    private static class Pending<V> extends CompletableFuture<V> {}
+}
@@ -5,4 +5,12 @@ public interface ExpiringEntry {
     long getTimestamp();
 
     default void close() {}
+
+    // pins the entry so that it is not closed while in use. returns false if it has already been closed
+    default boolean retain() {
+        return true;
+    }
+
+    // releases a pin taken by retain()
+    default void release() {}
 }
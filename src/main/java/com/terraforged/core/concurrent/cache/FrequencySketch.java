@@ -0,0 +1,92 @@
+package com.terraforged.core.concurrent.cache;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// a count-min sketch of 4-bit counters used to estimate how often a key has been accessed (as per TinyLFU).
+// all counters are halved once the number of samples reaches 10x the table size so that old popularity decays.
+// increments are called from any thread so each counter is updated with a saturating compare-and-set on its long
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final AtomicLongArray table;
+    private final AtomicInteger samples = new AtomicInteger();
+    private final int mask;
+    private final int sampleSize;
+
+    public FrequencySketch(int capacity) {
+        int size = HashCommon.nextPowerOfTwo(Math.max(16, capacity));
+        this.table = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.sampleSize = size * 10;
+    }
+
+    public int frequency(long key) {
+        long hash = HashCommon.mix(key);
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, get(hash, i));
+        }
+        return frequency;
+    }
+
+    public void increment(long key) {
+        long hash = HashCommon.mix(key);
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            added |= increment(hash, i);
+        }
+        // only the increment that reaches the sample size resets
+        if (added && samples.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+    private int get(long hash, int depth) {
+        int index = indexOf(hash, depth);
+        int shift = offsetOf(hash, depth);
+        return (int) ((table.get(index) >>> shift) & 15L);
+    }
+
+    private boolean increment(long hash, int depth) {
+        int index = indexOf(hash, depth);
+        int shift = offsetOf(hash, depth);
+        while (true) {
+            long value = table.get(index);
+            if (((value >>> shift) & 15L) == 15L) {
+                return false;
+            }
+            if (table.compareAndSet(index, value, value + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            while (true) {
+                long value = table.get(i);
+                if (table.compareAndSet(i, value, (value >>> 1) & RESET_MASK)) {
+                    break;
+                }
+            }
+        }
+        samples.set(0);
+    }
+
+    private int indexOf(long hash, int depth) {
+        long h = HashCommon.mix(hash + SEED * (depth + 1));
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int offsetOf(long hash, int depth) {
+        // each depth uses a different 4-bit counter within the long
+        int nibble = (int) (hash >>> (depth << 3)) & 3;
+        return ((depth << 2) + nibble) << 2;
+    }
+}
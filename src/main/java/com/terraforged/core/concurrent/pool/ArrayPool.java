@@ -1,18 +1,22 @@
 package com.terraforged.core.concurrent.pool;
 
 import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.util.metric.MetricCollector;
+import com.terraforged.core.util.metric.MetricSource;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
-public class ArrayPool<T> {
+public class ArrayPool<T> implements MetricSource {
 
     private final int capacity;
     private final IntFunction<T[]> constructor;
     private final List<ArrayPool.Item<T>> pool;
     private final Object lock = new Object();
+    private final LongAdder created = new LongAdder();
 
     public ArrayPool(int size, IntFunction<T[]> constructor) {
         this.capacity = size;
@@ -29,9 +33,21 @@ public class ArrayPool<T> {
                 }
             }
         }
+        created.increment();
         return new ArrayPool.Item<>(constructor.apply(arraySize), this);
     }
 
+    @Override
+    public void collect(MetricCollector collector) {
+        int idle;
+        synchronized (lock) {
+            idle = pool.size();
+        }
+        collector.collect("idle", idle);
+        collector.collect("capacity", capacity);
+        collector.collect("created", created.sum());
+    }
+
     private boolean restore(ArrayPool.Item<T> item) {
         synchronized (lock) {
             if (pool.size() < capacity) {
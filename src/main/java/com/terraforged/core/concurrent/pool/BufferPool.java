@@ -0,0 +1,99 @@
+package com.terraforged.core.concurrent.pool;
+
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.util.metric.MetricCollector;
+import com.terraforged.core.util.metric.MetricSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+// As ArrayPool but for objects that have a capacity rather than arrays
+public class BufferPool<T> implements MetricSource {
+
+    private final int capacity;
+    private final IntFunction<T> constructor;
+    private final ToIntFunction<T> sizer;
+    private final List<Item<T>> pool;
+    private final Object lock = new Object();
+    private final LongAdder created = new LongAdder();
+
+    public BufferPool(int size, IntFunction<T> constructor, ToIntFunction<T> sizer) {
+        this.capacity = size;
+        this.constructor = constructor;
+        this.sizer = sizer;
+        this.pool = new ArrayList<>(size);
+    }
+
+    public Resource<T> get(int bufferSize) {
+        synchronized (lock) {
+            if (pool.size() > 0) {
+                Item<T> resource = pool.remove(pool.size() - 1);
+                if (sizer.applyAsInt(resource.get()) >= bufferSize) {
+                    return resource.retain();
+                }
+            }
+        }
+        created.increment();
+        return new Item<>(constructor.apply(bufferSize), this);
+    }
+
+    @Override
+    public void collect(MetricCollector collector) {
+        int idle;
+        synchronized (lock) {
+            idle = pool.size();
+        }
+        collector.collect("idle", idle);
+        collector.collect("capacity", capacity);
+        collector.collect("created", created.sum());
+    }
+
+    private boolean restore(Item<T> item) {
+        synchronized (lock) {
+            if (pool.size() < capacity) {
+                pool.add(item);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Item<T> implements Resource<T> {
+
+        private final T value;
+        private final BufferPool<T> pool;
+
+        private boolean released = false;
+
+        private Item(T value, BufferPool<T> pool) {
+            this.value = value;
+            this.pool = pool;
+        }
+
+        @Override
+        public T get() {
+            return value;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !released;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                released = pool.restore(this);
+            }
+        }
+
+        private Item<T> retain() {
+            released = false;
+            return this;
+        }
+    }
+}
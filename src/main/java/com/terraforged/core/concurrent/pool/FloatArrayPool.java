@@ -0,0 +1,92 @@
+package com.terraforged.core.concurrent.pool;
+
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.util.metric.MetricCollector;
+import com.terraforged.core.util.metric.MetricSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// pools primitive float arrays (ie tile-sized scratch columns). returned arrays may be larger than requested
+public class FloatArrayPool implements MetricSource {
+
+    private final int capacity;
+    private final List<Item> pool;
+    private final Object lock = new Object();
+    private final LongAdder created = new LongAdder();
+
+    public FloatArrayPool(int size) {
+        this.capacity = size;
+        this.pool = new ArrayList<>(size);
+    }
+
+    public Resource<float[]> get(int arraySize) {
+        synchronized (lock) {
+            for (int i = pool.size() - 1; i >= 0; i--) {
+                if (pool.get(i).value.length >= arraySize) {
+                    return pool.remove(i).retain();
+                }
+            }
+        }
+        created.increment();
+        return new Item(new float[arraySize], this);
+    }
+
+    @Override
+    public void collect(MetricCollector collector) {
+        int idle;
+        synchronized (lock) {
+            idle = pool.size();
+        }
+        collector.collect("idle", idle);
+        collector.collect("capacity", capacity);
+        collector.collect("created", created.sum());
+    }
+
+    private boolean restore(Item item) {
+        synchronized (lock) {
+            if (pool.size() < capacity) {
+                pool.add(item);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Item implements Resource<float[]> {
+
+        private final float[] value;
+        private final FloatArrayPool pool;
+
+        private boolean released = false;
+
+        private Item(float[] value, FloatArrayPool pool) {
+            this.value = value;
+            this.pool = pool;
+        }
+
+        @Override
+        public float[] get() {
+            return value;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !released;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                released = pool.restore(this);
+            }
+        }
+
+        private Item retain() {
+            released = false;
+            return this;
+        }
+    }
+}
@@ -27,16 +27,20 @@ package com.terraforged.core.concurrent.pool;
 
 import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.cache.SafeCloseable;
+import com.terraforged.core.util.metric.MetricCollector;
+import com.terraforged.core.util.metric.MetricSource;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
-public class ObjectPool<T> {
+public class ObjectPool<T> implements MetricSource {
 
     private final int capacity;
     private final List<Item<T>> pool;
     private final Object lock = new Object();
+    private final LongAdder created = new LongAdder();
     private final Supplier<? extends T> supplier;
 
     public ObjectPool(int size, Supplier<? extends T> supplier) {
@@ -51,9 +55,21 @@ public class ObjectPool<T> {
                 return pool.remove(pool.size() - 1).retain();
             }
         }
+        created.increment();
         return new Item<>(supplier.get(), this);
     }
 
+    @Override
+    public void collect(MetricCollector collector) {
+        int idle;
+        synchronized (lock) {
+            idle = pool.size();
+        }
+        collector.collect("idle", idle);
+        collector.collect("capacity", capacity);
+        collector.collect("created", created.sum());
+    }
+
     private boolean restore(Item<T> item) {
         synchronized (lock) {
             if (pool.size() < capacity) {
@@ -3,24 +3,26 @@ package com.terraforged.core.concurrent.thread;
 import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.batch.Batcher;
 import com.terraforged.core.concurrent.batch.TaskBatcher;
+import com.terraforged.core.util.metric.MetricCollector;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class BatchingThreadPool implements ThreadPool {
 
     private final int size;
     private final boolean keepalive;
-    private final ExecutorService taskExecutor;
-    private final ExecutorService batchExecutor;
+    private final ThreadPoolExecutor taskExecutor;
+    private final ThreadPoolExecutor batchExecutor;
 
     private BatchingThreadPool(int taskSize, int batchSize, boolean keepalive) {
         this.keepalive = keepalive;
         this.size = taskSize + batchSize;
-        this.taskExecutor = Executors.newFixedThreadPool(taskSize, new WorkerFactory("TF-Task"));
-        this.batchExecutor = Executors.newFixedThreadPool(batchSize, new WorkerFactory("TF-Batch"));
+        this.taskExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(taskSize, new WorkerFactory("TF-Task"));
+        this.batchExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(batchSize, new WorkerFactory("TF-Batch"));
     }
 
     @Override
@@ -38,6 +40,18 @@ public class BatchingThreadPool implements ThreadPool {
         return taskExecutor.submit(callable);
     }
 
+    @Override
+    public int queueDepth() {
+        return taskExecutor.getQueue().size();
+    }
+
+    @Override
+    public void collect(MetricCollector collector) {
+        ThreadPool.super.collect(collector);
+        collector.collect("batch_queued", batchExecutor.getQueue().size());
+        collector.collect("batch_active", batchExecutor.getActiveCount());
+    }
+
     @Override
     public boolean keepAlive() {
         return keepalive;
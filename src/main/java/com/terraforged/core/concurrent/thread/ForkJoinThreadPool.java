@@ -43,6 +43,11 @@ public class ForkJoinThreadPool implements ThreadPool {
         return executor.submit(callable);
     }
 
+    @Override
+    public int queueDepth() {
+        return executor.getQueuedSubmissionCount() + (int) executor.getQueuedTaskCount();
+    }
+
     @Override
     public boolean keepAlive() {
         return keepAlive;
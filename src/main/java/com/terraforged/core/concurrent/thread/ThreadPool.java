@@ -2,11 +2,13 @@ package com.terraforged.core.concurrent.thread;
 
 import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.batch.Batcher;
+import com.terraforged.core.util.metric.MetricCollector;
+import com.terraforged.core.util.metric.MetricSource;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
-public interface ThreadPool {
+public interface ThreadPool extends MetricSource {
 
     int size();
 
@@ -25,4 +27,15 @@ public interface ThreadPool {
     <T> Future<T> submit(Callable<T> callable);
 
     Resource<Batcher> batcher();
+
+    // the number of submitted tasks waiting for a worker
+    default int queueDepth() {
+        return 0;
+    }
+
+    @Override
+    default void collect(MetricCollector collector) {
+        collector.collect("size", size());
+        collector.collect("queued", queueDepth());
+    }
 }
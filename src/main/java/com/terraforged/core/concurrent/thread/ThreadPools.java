@@ -1,5 +1,7 @@
 package com.terraforged.core.concurrent.thread;
 
+import com.terraforged.core.util.metric.Metrics;
+
 import java.lang.ref.WeakReference;
 
 public class ThreadPools {
@@ -12,14 +14,23 @@ public class ThreadPools {
         return util;
     }
 
+    // rivermaps are generated on a pool of their own. tasks on the util pool may wait on tiles that are themselves
+    // waiting on a rivermap, so rivermaps queued behind them there could never run
+    public static ThreadPool getRiverPool() {
+        return RiverPool.INSTANCE;
+    }
+
     private static ThreadPool createInitialPool(int poolSize) {
+        ThreadPool pool;
         if (poolSize == 1) {
-            return new SingleThreadPool();
+            pool = new SingleThreadPool();
+        } else if (poolSize < 4) {
+            pool = new ForkJoinThreadPool(poolSize, true);
+        } else {
+            pool = BatchingThreadPool.of(poolSize, true);
         }
-        if (poolSize < 4) {
-            return new ForkJoinThreadPool(poolSize, true);
-        }
-        return BatchingThreadPool.of(poolSize, true);
+        Metrics.register("thread_pool.util", pool);
+        return pool;
     }
 
     public static ThreadPool createDefault() {
@@ -62,6 +73,7 @@ public class ThreadPools {
             synchronized (lock) {
                 instance = new WeakReference<>(threadPool);
             }
+            Metrics.register("thread_pool", threadPool);
         }
         return threadPool;
     }
@@ -78,4 +90,16 @@ public class ThreadPools {
             }
         }
     }
+
+    // created on first use
+    private static class RiverPool {
+
+        private static final ThreadPool INSTANCE = createRiverPool();
+
+        private static ThreadPool createRiverPool() {
+            ThreadPool pool = new ForkJoinThreadPool(defaultPoolSize(), true);
+            Metrics.register("thread_pool.rivers", pool);
+            return pool;
+        }
+    }
 }
@@ -1,56 +1,53 @@
 package com.terraforged.core.filter;
 
-import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.filter.kernel.FilterKernel;
+import com.terraforged.core.filter.kernel.FilterKernels;
+import com.terraforged.core.tile.Size;
 import com.terraforged.world.GeneratorContext;
 import com.terraforged.world.heightmap.ControlPoints;
 import com.terraforged.world.terrain.Terrains;
 
-public class BeachDetect implements Filter, Filter.Visitor {
+public class BeachDetect implements Filter, StencilFilter {
 
     private final Terrains terrains;
     private final ControlPoints transition;
     private final float grad2;
     private final int radius = 8;
     private final int diameter = radius + 1 + radius;
+    private final FilterKernel kernel;
 
     public BeachDetect(GeneratorContext context) {
+        this(context, FilterKernels.get());
+    }
+
+    public BeachDetect(GeneratorContext context, FilterKernel kernel) {
         this.terrains = context.terrain;
         this.transition = new ControlPoints(context.settings.world.controlPoints);
         float delta = (8F / 256F) / diameter;
         this.grad2 = delta * delta;
+        this.kernel = kernel;
     }
 
     @Override
     public void apply(Filterable map, int seedX, int seedZ, int iterations) {
-        iterate(map, this);
+        Size size = map.getSize();
+        CellBuffer buffer = map.getBacking();
+        try (Resource<float[]> values = FilterKernels.floats(size.arraySize);
+             Resource<float[]> gradients = FilterKernels.floats(size.arraySize)) {
+            buffer.readValues(values.get(), size.arraySize);
+            apply(buffer, size, values.get(), gradients.get(), 0, size.arraySize);
+        }
     }
 
     @Override
-    public void visit(Filterable cellMap, Cell cell, int dx, int dz) {
-        if (cell.terrain.isCoast() && cell.continentEdge < transition.beach) {
-            Cell n = cellMap.getCellRaw(dx, dz - radius);
-            Cell s = cellMap.getCellRaw(dx, dz + radius);
-            Cell e = cellMap.getCellRaw(dx + radius, dz);
-            Cell w = cellMap.getCellRaw(dx - radius, dz);
-            float gx = grad(e, w, cell);
-            float gz = grad(n, s, cell);
-            float d2 = (gx * gx + gz * gz);
-            if (d2 < 0.275F) {
-                cell.terrain = terrains.beach;
+    public void apply(CellBuffer buffer, Size size, float[] values, float[] scratch, int from, int to) {
+        kernel.beachGradient(values, scratch, size.total, size.arraySize, radius, from, to);
+        for (int i = from; i < to; i++) {
+            if (scratch[i] < 0.275F && buffer.getContinentEdge(i) < transition.beach && buffer.getTerrain(i).isCoast()) {
+                buffer.setTerrain(i, terrains.beach);
             }
         }
     }
-
-    private float grad(Cell a, Cell b, Cell def) {
-        int distance = diameter;
-        if (a.isAbsent()) {
-            a = def;
-            distance -= radius;
-        }
-        if (b.isAbsent()) {
-            b = def;
-            distance -= radius;
-        }
-        return (a.value - b.value) / distance;
-    }
 }
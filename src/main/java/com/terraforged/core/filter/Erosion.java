@@ -25,13 +25,15 @@
 
 package com.terraforged.core.filter;
 
-import com.terraforged.core.cell.Cell;
+import com.terraforged.core.concurrent.batch.BatchTask;
+import com.terraforged.core.concurrent.batch.Batcher;
+import com.terraforged.core.concurrent.batch.SyncBatcher;
 import com.terraforged.core.settings.FilterSettings;
 import com.terraforged.core.tile.Size;
+import com.terraforged.core.util.StreamRandom;
 import com.terraforged.n2d.util.NoiseUtil;
 import com.terraforged.world.GeneratorContext;
 
-import java.util.Random;
 import java.util.function.IntFunction;
 
 /*
@@ -71,212 +73,355 @@ public class Erosion implements Filter {
     private static final float minSedimentCapacity = 0.01f; // Used to prevent carry capacity getting too close to zero on flatter terrain
     private static final float evaporateSpeed = 0.01f;
     private static final float gravity = 3;
+    private static final int worldGridSize = 32; // The size of the world-space cells that droplet start positions are drawn from (must be a power of 2)
+    private static final int worldDensitySize = 192; // In world-space mode, iterations are per this many blocks squared (the area of a default-sized tile)
 
     private final float erodeSpeed;
     private final float depositSpeed;
     private final float initialSpeed;
     private final float initialWaterVolume;
     private final int maxDropletLifetime;
-    private final int[][] erosionBrushIndices;
-    private final float[][] erosionBrushWeights;
+    private final ErosionBrush brush;
 
     private final int mapSize;
+    private final long seed;
+    private final boolean parallel;
+    private final boolean worldSpace;
+    private final int halo;
     private final Modifier modifier;
 
     public Erosion(int mapSize, FilterSettings.Erosion settings, Modifier modifier) {
+        this(mapSize, 0, settings, modifier);
+    }
+
+    public Erosion(int mapSize, int seed, FilterSettings.Erosion settings, Modifier modifier) {
         this.mapSize = mapSize;
+        this.seed = seed;
         this.modifier = modifier;
         this.erodeSpeed = settings.erosionRate;
         this.depositSpeed = settings.depositeRate;
         this.initialSpeed = settings.dropletVelocity;
         this.initialWaterVolume = settings.dropletVolume;
         this.maxDropletLifetime = settings.dropletLifetime;
-        this.erosionBrushIndices = new int[mapSize * mapSize][];
-        this.erosionBrushWeights = new float[mapSize * mapSize][];
-        initBrushes(mapSize, erosionRadius);
+        this.parallel = settings.parallel;
+        this.worldSpace = settings.worldSpace;
+        this.halo = getHalo(settings);
+        this.brush = ErosionBrush.get(mapSize, erosionRadius);
     }
 
     public int getSize() {
         return mapSize;
     }
 
+    // world-space erosion takes priority over parallel erosion (the partitions are drawn per tile so can't line
+    // up across tiles). maps that aren't world-aligned, eg zoomed tiles, use the per tile modes
     @Override
     public void apply(Filterable map, int seedX, int seedZ, int iterations) {
-        applyMain(map, seedX, seedZ, iterations, new Random());
+        if (isWorldSpace(map)) {
+            applyWorld(map, iterations);
+        } else if (parallel) {
+            applyPartitioned(map, seedX, seedZ, iterations, new SyncBatcher());
+        } else {
+            applyMain(map, seedX, seedZ, iterations, StreamRandom.get());
+        }
+    }
+
+    @Override
+    public void apply(Filterable map, int seedX, int seedZ, int iterations, Batcher batcher) {
+        if (isWorldSpace(map)) {
+            applyWorld(map, iterations);
+        } else if (parallel) {
+            applyPartitioned(map, seedX, seedZ, iterations, batcher);
+        } else {
+            applyMain(map, seedX, seedZ, iterations, StreamRandom.get());
+        }
+    }
+
+    private boolean isWorldSpace(Filterable map) {
+        if (!worldSpace || !map.isWorldAligned()) {
+            return false;
+        }
+        if (map.getSize().border < halo) {
+            throw new IllegalStateException("World-space erosion needs a tile border of at least " + halo
+                    + " blocks but the border is " + map.getSize().border + " (see TileGenerator.Builder#border)");
+        }
+        return true;
     }
 
-    private int nextCoord(Size size, Random random) {
+    private int nextCoord(Size size, StreamRandom random) {
         return random.nextInt(size.total - 1);
     }
 
-    private void applyMain(Filterable map, int seedX, int seedZ, int iterations, Random random) {
+    private void applyMain(Filterable map, int seedX, int seedZ, int iterations, StreamRandom random) {
         final int size = map.getSize().total;
-        final Cell[] cells = map.getBacking();
-
-        float posX;
-        float posY;
-        float dirX;
-        float dirY;
-        float speed;
-        float water;
-        float sediment;
+
         TerrainPos gradient1 = new TerrainPos();
         TerrainPos gradient2 = new TerrainPos();
 
-        random.setSeed(NoiseUtil.seed(seedX, seedZ));
-        while (iterations-- > 0) {
-            dirX = 0;
-            dirY = 0;
-            sediment = 0;
+        try (Heightfield heightfield = Heightfield.read(map, modifier)) {
+            random.setSeed(NoiseUtil.seed(seedX, seedZ));
+            while (iterations-- > 0) {
+                float posX = nextCoord(map.getSize(), random);
+                float posY = nextCoord(map.getSize(), random);
+                simulate(heightfield, size, posX, posY, gradient1, gradient2);
+            }
+            heightfield.write(map.getBacking());
+        }
+    }
 
-            gradient1.reset();
-            gradient2.reset();
+    // droplets start at positions drawn from a fixed grid of cells over the world (rather than from a random seeded
+    // by the tile) & are simulated in a fixed world order, droplet index first then cell, so that maps which overlap
+    // simulate the same droplets in the same order across their shared area. as long as the map's border is at least
+    // getHalo() wide, every droplet that can reach its inner area starts within the map, so the inner areas of
+    // neighbouring tiles line up. droplet density is fixed per block rather than per map so it doesn't depend on the
+    // tile size
+    private void applyWorld(Filterable map, int iterations) {
+        int size = map.getSize().total;
+        int originX = map.getBlockX();
+        int originZ = map.getBlockZ();
+        int minGridX = Math.floorDiv(originX, worldGridSize);
+        int minGridZ = Math.floorDiv(originZ, worldGridSize);
+        int maxGridX = Math.floorDiv(originX + size - 2, worldGridSize);
+        int maxGridZ = Math.floorDiv(originZ + size - 2, worldGridSize);
+
+        float expected = ((float) iterations / (worldDensitySize * worldDensitySize)) * (worldGridSize * worldGridSize);
+        int whole = (int) expected;
+        float fraction = expected - whole;
 
-            speed = initialSpeed;
-            water = initialWaterVolume;
+        TerrainPos gradient1 = new TerrainPos();
+        TerrainPos gradient2 = new TerrainPos();
 
-            posX = nextCoord(map.getSize(), random);
-            posY = nextCoord(map.getSize(), random);
+        try (Heightfield heightfield = Heightfield.read(map, modifier)) {
+            for (int droplet = 0; droplet <= whole; droplet++) {
+                for (int gridZ = minGridZ; gridZ <= maxGridZ; gridZ++) {
+                    for (int gridX = minGridX; gridX <= maxGridX; gridX++) {
+                        long hash = hash(seed, gridX, gridZ, droplet);
 
-            for (int lifetime = 0; lifetime < maxDropletLifetime; lifetime++) {
-                int nodeX = (int) posX;
-                int nodeY = (int) posY;
-                int dropletIndex = nodeY * size + nodeX;
-                // Calculate droplet's offset inside the cell (0,0) = at NW node, (1,1) = at SE node
-                float cellOffsetX = posX - nodeX;
-                float cellOffsetY = posY - nodeY;
+                        // each cell gets one extra droplet with a probability of the fractional part of expected
+                        if (droplet == whole && (hash >>> 40) * 0x1.0p-24F >= fraction) {
+                            continue;
+                        }
 
-                // Calculate droplet's height and direction of flow with bilinear interpolation of surrounding heights
-                gradient1.at(cells, size, posX, posY);
+                        int x = gridX * worldGridSize + (int) (hash & (worldGridSize - 1)) - originX;
+                        int z = gridZ * worldGridSize + (int) ((hash >>> 16) & (worldGridSize - 1)) - originZ;
+                        if (x < 0 || x >= size - 1 || z < 0 || z >= size - 1) {
+                            continue;
+                        }
 
-                // Update the droplet's direction and position (move position 1 unit regardless of speed)
-                dirX = (dirX * inertia - gradient1.gradientX * (1 - inertia));
-                dirY = (dirY * inertia - gradient1.gradientY * (1 - inertia));
+                        simulate(heightfield, size, x, z, gradient1, gradient2);
+                    }
+                }
+            }
+            heightfield.write(map.getBacking());
+        }
+    }
 
-                // Normalize direction
-                float len = (float) Math.sqrt(dirX * dirX + dirY * dirY);
-                if (Float.isNaN(len)) {
-                    len = 0;
+    // splits the map into a grid of partitions, each at least as wide as the distance a droplet can affect from its
+    // starting point, & simulates droplets starting within each partition sequentially on its own sub-stream of the seed. the grid is
+    // processed in nine phases (by each partition's x/z index mod 3) so that partitions run at the same time are
+    // separated by two others & their droplets can never touch the same cells. results only depend on the seed &
+    // map size (not on the number of threads or the order in which partitions complete)
+    private void applyPartitioned(Filterable map, int seedX, int seedZ, int iterations, Batcher batcher) {
+        int size = map.getSize().total;
+        int extent = size - 1;
+        int reach = maxDropletLifetime + erosionRadius + 2;
+        int count = Math.max(1, extent / reach);
+        int partitions = count * count;
+        long seed = NoiseUtil.seed(seedX, seedZ);
+
+        try (Heightfield heightfield = Heightfield.read(map, modifier)) {
+            for (int phase = 0; phase < 9; phase++) {
+                int phaseX = phase % 3;
+                int phaseZ = phase / 3;
+                int tasks = ((count - phaseX + 2) / 3) * ((count - phaseZ + 2) / 3);
+                if (tasks == 0) {
+                    continue;
                 }
 
-                if (len != 0) {
-                    dirX /= len;
-                    dirY /= len;
+                batcher.size(tasks);
+                for (int pz = phaseZ; pz < count; pz += 3) {
+                    for (int px = phaseX; px < count; px += 3) {
+                        int index = pz * count + px;
+                        int droplets = iterations / partitions + (index < iterations % partitions ? 1 : 0);
+                        batcher.submit(new Partition(
+                                heightfield,
+                                size,
+                                (px * extent) / count,
+                                (pz * extent) / count,
+                                ((px + 1) * extent) / count,
+                                ((pz + 1) * extent) / count,
+                                droplets,
+                                seed,
+                                index
+                        ));
+                    }
                 }
+                batcher.close();
+            }
+            heightfield.write(map.getBacking());
+        }
+    }
 
-                posX += dirX;
-                posY += dirY;
+    private void simulate(Heightfield heightfield, int size, float posX, float posY, TerrainPos gradient1, TerrainPos gradient2) {
+        float dirX = 0;
+        float dirY = 0;
+        float sediment = 0;
+        float speed = initialSpeed;
+        float water = initialWaterVolume;
 
-                // Stop simulating droplet if it's not moving or has flowed over edge of map
-                if ((dirX == 0 && dirY == 0) || posX < 0 || posX >= size - 1 || posY < 0 || posY >= size - 1) {
-                    break;
-                }
+        gradient1.reset();
+        gradient2.reset();
 
-                // Find the droplet's new height and calculate the deltaHeight
-                float newHeight = gradient2.at(cells, size, posX, posY).height;
-                float deltaHeight = newHeight - gradient1.height;
-
-                // Calculate the droplet's sediment capacity (higher when moving fast down a slope and contains lots of water)
-                float sedimentCapacity = Math.max(-deltaHeight * speed * water * sedimentCapacityFactor, minSedimentCapacity);
-
-                // If carrying more sediment than capacity, or if flowing uphill:
-                if (sediment > sedimentCapacity || deltaHeight > 0) {
-                    // If moving uphill (deltaHeight > 0) try fill up to the current height, otherwise deposit a fraction of the excess sediment
-                    float amountToDeposit = (deltaHeight > 0) ? Math.min(deltaHeight, sediment) : (sediment - sedimentCapacity) * depositSpeed;
-                    sediment -= amountToDeposit;
-
-                    // Add the sediment to the four nodes of the current cell using bilinear interpolation
-                    // Deposition is not distributed over a radius (like erosion) so that it can fill small pits
-                    deposit(cells[dropletIndex], amountToDeposit * (1 - cellOffsetX) * (1 - cellOffsetY));
-                    deposit(cells[dropletIndex + 1], amountToDeposit * cellOffsetX * (1 - cellOffsetY));
-                    deposit(cells[dropletIndex + size], amountToDeposit * (1 - cellOffsetX) * cellOffsetY);
-                    deposit(cells[dropletIndex + size + 1], amountToDeposit * cellOffsetX * cellOffsetY);
-                } else {
-                    // Erode a fraction of the droplet's current carry capacity.
-                    // Clamp the erosion to the change in height so that it doesn't dig a hole in the terrain behind the droplet
-                    float amountToErode = Math.min((sedimentCapacity - sediment) * erodeSpeed, -deltaHeight);
-
-                    // Use erosion brush to erode from all nodes inside the droplet's erosion radius
-                    for (int brushPointIndex = 0; brushPointIndex < erosionBrushIndices[dropletIndex].length; brushPointIndex++) {
-                        int nodeIndex = erosionBrushIndices[dropletIndex][brushPointIndex];
-                        Cell cell = cells[nodeIndex];
-                        float brushWeight = erosionBrushWeights[dropletIndex][brushPointIndex];
-                        float weighedErodeAmount = amountToErode * brushWeight;
-                        float deltaSediment = (cell.value < weighedErodeAmount) ? cell.value : weighedErodeAmount;
-                        erode(cell, deltaSediment);
-                        sediment += deltaSediment;
-                    }
-                }
+        for (int lifetime = 0; lifetime < maxDropletLifetime; lifetime++) {
+            int nodeX = (int) posX;
+            int nodeY = (int) posY;
+            int dropletIndex = nodeY * size + nodeX;
+            // Calculate droplet's offset inside the cell (0,0) = at NW node, (1,1) = at SE node
+            float cellOffsetX = posX - nodeX;
+            float cellOffsetY = posY - nodeY;
 
-                // Update droplet's speed and water content
-                speed = (float) Math.sqrt(speed * speed + deltaHeight * gravity);
-                water *= (1 - evaporateSpeed);
+            // Calculate droplet's height and direction of flow with bilinear interpolation of surrounding heights
+            gradient1.at(heightfield.value, size, posX, posY);
 
-                if (Float.isNaN(speed)) {
-                    speed = 0;
-                }
+            // Update the droplet's direction and position (move position 1 unit regardless of speed)
+            dirX = (dirX * inertia - gradient1.gradientX * (1 - inertia));
+            dirY = (dirY * inertia - gradient1.gradientY * (1 - inertia));
+
+            // Normalize direction
+            float len = (float) Math.sqrt(dirX * dirX + dirY * dirY);
+            if (Float.isNaN(len)) {
+                len = 0;
             }
-        }
-    }
 
-    private void initBrushes(int size, int radius) {
-        int[] xOffsets = new int[radius * radius * 4];
-        int[] yOffsets = new int[radius * radius * 4];
-        float[] weights = new float[radius * radius * 4];
-        float weightSum = 0;
-        int addIndex = 0;
-
-        for (int i = 0; i < erosionBrushIndices.length; i++) {
-            int centreX = i % size;
-            int centreY = i / size;
-
-            if (centreY <= radius || centreY >= size - radius || centreX <= radius + 1 || centreX >= size - radius) {
-                weightSum = 0;
-                addIndex = 0;
-                for (int y = -radius; y <= radius; y++) {
-                    for (int x = -radius; x <= radius; x++) {
-                        float sqrDst = x * x + y * y;
-                        if (sqrDst < radius * radius) {
-                            int coordX = centreX + x;
-                            int coordY = centreY + y;
-
-                            if (coordX >= 0 && coordX < size && coordY >= 0 && coordY < size) {
-                                float weight = 1 - (float) Math.sqrt(sqrDst) / radius;
-                                weightSum += weight;
-                                weights[addIndex] = weight;
-                                xOffsets[addIndex] = x;
-                                yOffsets[addIndex] = y;
-                                addIndex++;
-                            }
-                        }
+            if (len != 0) {
+                dirX /= len;
+                dirY /= len;
+            }
+
+            posX += dirX;
+            posY += dirY;
+
+            // Stop simulating droplet if it's not moving or has flowed over edge of map
+            if ((dirX == 0 && dirY == 0) || posX < 0 || posX >= size - 1 || posY < 0 || posY >= size - 1) {
+                break;
+            }
+
+            // Find the droplet's new height and calculate the deltaHeight
+            float newHeight = gradient2.at(heightfield.value, size, posX, posY).height;
+            float deltaHeight = newHeight - gradient1.height;
+
+            // Calculate the droplet's sediment capacity (higher when moving fast down a slope and contains lots of water)
+            float sedimentCapacity = Math.max(-deltaHeight * speed * water * sedimentCapacityFactor, minSedimentCapacity);
+
+            // If carrying more sediment than capacity, or if flowing uphill:
+            if (sediment > sedimentCapacity || deltaHeight > 0) {
+                // If moving uphill (deltaHeight > 0) try fill up to the current height, otherwise deposit a fraction of the excess sediment
+                float amountToDeposit = (deltaHeight > 0) ? Math.min(deltaHeight, sediment) : (sediment - sedimentCapacity) * depositSpeed;
+                sediment -= amountToDeposit;
+
+                // Add the sediment to the four nodes of the current cell using bilinear interpolation
+                // Deposition is not distributed over a radius (like erosion) so that it can fill small pits
+                deposit(heightfield, dropletIndex, amountToDeposit * (1 - cellOffsetX) * (1 - cellOffsetY));
+                deposit(heightfield, dropletIndex + 1, amountToDeposit * cellOffsetX * (1 - cellOffsetY));
+                deposit(heightfield, dropletIndex + size, amountToDeposit * (1 - cellOffsetX) * cellOffsetY);
+                deposit(heightfield, dropletIndex + size + 1, amountToDeposit * cellOffsetX * cellOffsetY);
+            } else {
+                // Erode a fraction of the droplet's current carry capacity.
+                // Clamp the erosion to the change in height so that it doesn't dig a hole in the terrain behind the droplet
+                float amountToErode = Math.min((sedimentCapacity - sediment) * erodeSpeed, -deltaHeight);
+
+                // Use erosion brush to erode from all nodes inside the droplet's erosion radius
+                if (brush.isShared(dropletIndex)) {
+                    for (int brushPointIndex = 0; brushPointIndex < brush.offsets.length; brushPointIndex++) {
+                        int nodeIndex = dropletIndex + brush.offsets[brushPointIndex];
+                        sediment += erode(heightfield, nodeIndex, amountToErode * brush.weights[brushPointIndex]);
+                    }
+                } else {
+                    for (int brushPointIndex = brush.rows[dropletIndex]; brushPointIndex < brush.rows[dropletIndex + 1]; brushPointIndex++) {
+                        int nodeIndex = brush.indices[brushPointIndex];
+                        sediment += erode(heightfield, nodeIndex, amountToErode * brush.edgeWeights[brushPointIndex]);
                     }
                 }
             }
 
-            int numEntries = addIndex;
-            erosionBrushIndices[i] = new int[numEntries];
-            erosionBrushWeights[i] = new float[numEntries];
+            // Update droplet's speed and water content
+            speed = (float) Math.sqrt(speed * speed + deltaHeight * gravity);
+            water *= (1 - evaporateSpeed);
 
-            for (int j = 0; j < numEntries; j++) {
-                erosionBrushIndices[i][j] = (yOffsets[j] + centreY) * size + xOffsets[j] + centreX;
-                erosionBrushWeights[i][j] = weights[j] / weightSum;
+            if (Float.isNaN(speed)) {
+                speed = 0;
             }
         }
     }
 
-    private void deposit(Cell cell, float amount) {
-        if (!cell.erosionMask) {
-            float change = modifier.modify(cell, amount);
-            cell.value += change;
-            cell.sediment += change;
+    // cells excluded by the erosion mask have zero strength
+    private void deposit(Heightfield heightfield, int index, float amount) {
+        float strength = heightfield.strength[index];
+        if (strength != 0) {
+            float change = modifier.getValueModifier(heightfield.value[index]) * strength * amount;
+            heightfield.value[index] += change;
+            heightfield.sediment[index] += change;
         }
     }
 
-    private void erode(Cell cell, float amount) {
-        if (!cell.erosionMask) {
-            float change = modifier.modify(cell, amount);
-            cell.value -= change;
-            cell.erosion -= change;
+    // returns the amount of sediment picked up by the droplet
+    private float erode(Heightfield heightfield, int index, float weighedErodeAmount) {
+        float value = heightfield.value[index];
+        float deltaSediment = (value < weighedErodeAmount) ? value : weighedErodeAmount;
+        float strength = heightfield.strength[index];
+        if (strength != 0) {
+            float change = modifier.getValueModifier(value) * strength * deltaSediment;
+            heightfield.value[index] -= change;
+            heightfield.erosion[index] -= change;
+        }
+        return deltaSediment;
+    }
+
+    private class Partition implements BatchTask {
+
+        private final Heightfield heightfield;
+        private final int size;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private final int droplets;
+        private final long seed;
+        private final int index;
+
+        private BatchTask.Notifier notifier = BatchTask.NONE;
+
+        private Partition(Heightfield heightfield, int size, int minX, int minZ, int maxX, int maxZ, int droplets, long seed, int index) {
+            this.heightfield = heightfield;
+            this.size = size;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+            this.droplets = droplets;
+            this.seed = seed;
+            this.index = index;
+        }
+
+        @Override
+        public void setNotifier(BatchTask.Notifier notifier) {
+            this.notifier = notifier;
+        }
+
+        @Override
+        public void run() {
+            try {
+                StreamRandom random = StreamRandom.get().seed(seed, index);
+                TerrainPos gradient1 = new TerrainPos();
+                TerrainPos gradient2 = new TerrainPos();
+                for (int i = 0; i < droplets; i++) {
+                    float posX = minX + random.nextInt(maxX - minX);
+                    float posY = minZ + random.nextInt(maxZ - minZ);
+                    simulate(heightfield, size, posX, posY, gradient1, gradient2);
+                }
+            } finally {
+                notifier.markDone();
+            }
         }
     }
 
@@ -285,7 +430,7 @@ public class Erosion implements Filter {
         private float gradientX;
         private float gradientY;
 
-        private TerrainPos at(Cell[] nodes, int mapSize, float posX, float posY) {
+        private TerrainPos at(float[] nodes, int mapSize, float posX, float posY) {
             int coordX = (int) posX;
             int coordY = (int) posY;
 
@@ -295,10 +440,10 @@ public class Erosion implements Filter {
 
             // Calculate heights of the four nodes of the droplet's cell
             int nodeIndexNW = coordY * mapSize + coordX;
-            float heightNW = nodes[nodeIndexNW].value;
-            float heightNE = nodes[nodeIndexNW + 1].value;
-            float heightSW = nodes[nodeIndexNW + mapSize].value;
-            float heightSE = nodes[nodeIndexNW + mapSize + 1].value;
+            float heightNW = nodes[nodeIndexNW];
+            float heightNE = nodes[nodeIndexNW + 1];
+            float heightSW = nodes[nodeIndexNW + mapSize];
+            float heightSE = nodes[nodeIndexNW + mapSize + 1];
 
             // Calculate droplet's direction of flow with bilinear interpolation of height difference along the edges
             this.gradientX = (heightNE - heightNW) * (1 - y) + (heightSE - heightSW) * y;
@@ -317,20 +462,42 @@ public class Erosion implements Filter {
 
     private static class Factory implements IntFunction<Erosion> {
 
+        private final int seed;
         private final Modifier modifier;
         private final FilterSettings.Erosion settings;
 
         private Factory(GeneratorContext context) {
+            this.seed = context.seed.get();
             this.settings = context.settings.filters.erosion.copy();
             this.modifier = Modifier.range(context.levels.ground, context.levels.ground(15));
         }
 
         @Override
         public Erosion apply(int size) {
-            return new Erosion(size, settings, modifier);
+            return new Erosion(size, seed, settings, modifier);
         }
     }
 
+    // the width of border (in blocks) that a map needs around the area it outputs for world-space erosion to be
+    // seamless. tile generators widen their border to fit it (see TileGenerator.Builder#build)
+    public static int getHalo(FilterSettings.Erosion settings) {
+        return settings.dropletLifetime + erosionRadius + 2;
+    }
+
+    private static long hash(long seed, int gridX, int gridZ, int droplet) {
+        long hash = seed;
+        hash = mix(hash + gridX);
+        hash = mix(hash + gridZ);
+        return mix(hash + droplet);
+    }
+
+    // the splitmix64 finalizer
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
     public static IntFunction<Erosion> factory(GeneratorContext context) {
         return new Factory(context);
     }
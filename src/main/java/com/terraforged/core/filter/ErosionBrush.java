@@ -0,0 +1,117 @@
+package com.terraforged.core.filter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// the cells eroded around each droplet position & their weights, for a map of a given size. cells far enough from
+// the edge of the map all share one stencil of index offsets. cells near the edge (where the stencil gets clipped)
+// have their own rows, stored compressed: the entries for cell i are indices/edgeWeights[rows[i] .. rows[i + 1])
+// & cells using the shared stencil have an empty row
+public class ErosionBrush {
+
+    private static final Map<Long, ErosionBrush> CACHE = new ConcurrentHashMap<>();
+
+    public final int size;
+    public final int radius;
+    public final int[] offsets;
+    public final float[] weights;
+    public final int[] rows;
+    public final int[] indices;
+    public final float[] edgeWeights;
+
+    private ErosionBrush(int size, int radius) {
+        int diameter = radius + 1 + radius;
+        int[] xOffsets = new int[diameter * diameter];
+        int[] yOffsets = new int[diameter * diameter];
+        float[] pointWeights = new float[diameter * diameter];
+        float weightSum = 0;
+        int points = 0;
+
+        for (int y = -radius; y <= radius; y++) {
+            for (int x = -radius; x <= radius; x++) {
+                float sqrDst = x * x + y * y;
+                if (sqrDst < radius * radius) {
+                    float weight = 1 - (float) Math.sqrt(sqrDst) / radius;
+                    weightSum += weight;
+                    xOffsets[points] = x;
+                    yOffsets[points] = y;
+                    pointWeights[points] = weight;
+                    points++;
+                }
+            }
+        }
+
+        this.size = size;
+        this.radius = radius;
+        this.offsets = new int[points];
+        this.weights = new float[points];
+        for (int j = 0; j < points; j++) {
+            offsets[j] = yOffsets[j] * size + xOffsets[j];
+            weights[j] = pointWeights[j] / weightSum;
+        }
+
+        int cells = size * size;
+        int edgeCells = 0;
+        for (int i = 0; i < cells; i++) {
+            if (isEdge(i % size, i / size, size, radius)) {
+                edgeCells++;
+            }
+        }
+
+        int[] edgeIndices = new int[edgeCells * points];
+        float[] edgeWeights = new float[edgeCells * points];
+        int[] clipped = new int[points];
+        int count = 0;
+
+        this.rows = new int[cells + 1];
+        for (int i = 0; i < cells; i++) {
+            rows[i] = count;
+
+            int centreX = i % size;
+            int centreY = i / size;
+            if (!isEdge(centreX, centreY, size, radius)) {
+                continue;
+            }
+
+            // the stencil points that fall inside the map, re-weighted to sum to one
+            int entries = 0;
+            float clippedSum = 0;
+            for (int j = 0; j < points; j++) {
+                int coordX = centreX + xOffsets[j];
+                int coordY = centreY + yOffsets[j];
+                if (coordX >= 0 && coordX < size && coordY >= 0 && coordY < size) {
+                    clippedSum += pointWeights[j];
+                    clipped[entries++] = j;
+                }
+            }
+
+            for (int k = 0; k < entries; k++) {
+                int j = clipped[k];
+                edgeIndices[count] = (yOffsets[j] + centreY) * size + xOffsets[j] + centreX;
+                edgeWeights[count] = pointWeights[j] / clippedSum;
+                count++;
+            }
+        }
+        rows[cells] = count;
+
+        this.indices = Arrays.copyOf(edgeIndices, count);
+        this.edgeWeights = Arrays.copyOf(edgeWeights, count);
+    }
+
+    // whether the cell at index uses the shared stencil
+    public boolean isShared(int index) {
+        return rows[index] == rows[index + 1];
+    }
+
+    // brushes are immutable so a single instance is shared by every filter working on maps of the same size
+    public static ErosionBrush get(int size, int radius) {
+        long key = ((long) radius << 32) | (size & 0xFFFFFFFFL);
+        return CACHE.computeIfAbsent(key, k -> new ErosionBrush(size, radius));
+    }
+
+    // cells whose stencil may reach past the edge of the map
+    private static boolean isEdge(int centreX, int centreY, int size, int radius) {
+        return centreY <= radius || centreY >= size - radius || centreX <= radius + 1 || centreX >= size - radius;
+    }
+}
@@ -26,16 +26,26 @@
 package com.terraforged.core.filter;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.batch.Batcher;
 
 public interface Filter {
 
     void apply(Filterable map, int seedX, int seedZ, int iterations);
 
+    // filters that can split their work into independent tasks may submit them to the batcher
+    default void apply(Filterable map, int seedX, int seedZ, int iterations, Batcher batcher) {
+        apply(map, seedX, seedZ, iterations);
+    }
+
     default void iterate(Filterable map, Visitor visitor) {
+        Cell cell = new Cell();
+        CellBuffer buffer = map.getBacking();
         for (int dz = 0; dz < map.getSize().total; dz++) {
             for (int dx = 0; dx < map.getSize().total; dx++) {
-                Cell cell = map.getCellRaw(dx, dz);
-                visitor.visit(map, cell, dx, dz);
+                int index = map.getSize().indexOf(dx, dz);
+                visitor.visit(map, buffer.load(index, cell), dx, dz);
+                buffer.store(index, cell);
             }
         }
     }
@@ -0,0 +1,108 @@
+package com.terraforged.core.filter;
+
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.batch.BatchTask;
+import com.terraforged.core.concurrent.batch.Batcher;
+import com.terraforged.core.concurrent.batch.SyncBatcher;
+import com.terraforged.core.filter.kernel.FilterKernels;
+import com.terraforged.core.tile.Size;
+
+// runs a number of stencil filters as a single pass over the map. the heights are read from the buffer once & the
+// map is split into bands of rows that are processed in parallel. within a band every filter is applied to a few
+// rows at a time, so the neighbourhoods that the filters read are still cached when the next filter reaches them
+public class FilterPipeline implements Filter {
+
+    private static final int bandRows = 16;
+    private static final int chunkRows = 4;
+
+    private final StencilFilter[] filters;
+
+    public FilterPipeline(StencilFilter... filters) {
+        this.filters = filters;
+    }
+
+    @Override
+    public void apply(Filterable map, int seedX, int seedZ, int iterations) {
+        apply(map, seedX, seedZ, iterations, new SyncBatcher());
+    }
+
+    @Override
+    public void apply(Filterable map, int seedX, int seedZ, int iterations, Batcher batcher) {
+        Size size = map.getSize();
+        CellBuffer buffer = map.getBacking();
+        Resource<float[]> values = FilterKernels.floats(size.arraySize);
+        Resource<?>[] resources = new Resource<?>[filters.length];
+        float[][] scratch = new float[filters.length][];
+        try {
+            for (int i = 0; i < filters.length; i++) {
+                Resource<float[]> resource = FilterKernels.floats(size.arraySize);
+                resources[i] = resource;
+                scratch[i] = resource.get();
+            }
+
+            buffer.readValues(values.get(), size.arraySize);
+
+            int bands = (size.total + bandRows - 1) / bandRows;
+            batcher.size(bands);
+            for (int band = 0; band < bands; band++) {
+                int minZ = band * bandRows;
+                int maxZ = Math.min(size.total, minZ + bandRows);
+                batcher.submit(new Band(buffer, size, values.get(), scratch, minZ, maxZ));
+            }
+            batcher.close();
+
+            for (int i = 0; i < filters.length; i++) {
+                filters[i].complete(buffer, size, scratch[i]);
+            }
+        } finally {
+            values.close();
+            for (Resource<?> resource : resources) {
+                if (resource != null) {
+                    resource.close();
+                }
+            }
+        }
+    }
+
+    private class Band implements BatchTask {
+
+        private final CellBuffer buffer;
+        private final Size size;
+        private final float[] values;
+        private final float[][] scratch;
+        private final int minZ;
+        private final int maxZ;
+
+        private BatchTask.Notifier notifier = BatchTask.NONE;
+
+        private Band(CellBuffer buffer, Size size, float[] values, float[][] scratch, int minZ, int maxZ) {
+            this.buffer = buffer;
+            this.size = size;
+            this.values = values;
+            this.scratch = scratch;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public void setNotifier(BatchTask.Notifier notifier) {
+            this.notifier = notifier;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int z = minZ; z < maxZ; z += chunkRows) {
+                    int from = z * size.total;
+                    int to = Math.min(maxZ, z + chunkRows) * size.total;
+                    for (int i = 0; i < filters.length; i++) {
+                        filters[i].apply(buffer, size, values, scratch[i], from, to);
+                    }
+                }
+            } finally {
+                notifier.markDone();
+            }
+        }
+    }
+}
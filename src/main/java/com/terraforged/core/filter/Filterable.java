@@ -26,13 +26,27 @@
 package com.terraforged.core.filter;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBuffer;
 import com.terraforged.core.tile.Size;
 
 public interface Filterable {
 
     Size getSize();
 
-    Cell[] getBacking();
+    CellBuffer getBacking();
 
     Cell getCellRaw(int x, int z);
+
+    // whether cell 0,0 of the map sits at getBlockX/Z in the world, one cell per block (not true of zoomed maps)
+    default boolean isWorldAligned() {
+        return false;
+    }
+
+    default int getBlockX() {
+        return 0;
+    }
+
+    default int getBlockZ() {
+        return 0;
+    }
 }
@@ -0,0 +1,349 @@
+package com.terraforged.core.filter;
+
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.batch.BatchTask;
+import com.terraforged.core.concurrent.batch.Batcher;
+import com.terraforged.core.concurrent.batch.SyncBatcher;
+import com.terraforged.core.concurrent.cache.SafeCloseable;
+import com.terraforged.core.filter.kernel.FilterKernels;
+import com.terraforged.core.settings.FilterSettings;
+import com.terraforged.world.GeneratorContext;
+
+import java.util.Arrays;
+
+/*
+ * Grid based hydraulic & thermal erosion. Rather than tracing droplets one at a time, every cell carries a depth of
+ * water & suspended sediment which are advanced together each step, using the 'virtual pipe' model described in:
+ * Mei, Decaudin & Hu, Fast Hydraulic Erosion Simulation and Visualization on GPU (2007).
+ *
+ * Each step is split into passes over the whole map. A pass only writes to the cells it owns & only reads the cells
+ * of other rows from buffers that the pass doesn't write to, so the rows of a pass can be processed in any order or
+ * at the same time, & results don't depend on the batcher used.
+ */
+public class GridErosion implements Filter {
+
+    private static final int bandSize = 16; // The number of rows processed by each task
+    private static final float pipeFlow = 0.25f; // How quickly water flows towards lower neighbours
+    private static final float rainRate = 0.00025f; // The depth of water added to every cell each step
+    private static final float evaporateSpeed = 0.02f;
+    private static final float sedimentCapacityFactor = 4; // Multiplier for how much sediment the water in a cell can carry
+    private static final float minTilt = 0.05f; // Used to prevent carry capacity reaching zero on flat terrain
+    private static final float heightScale = 256; // The number of blocks per unit of height, used to measure slopes
+    private static final float talus = 1.5f / heightScale; // The height difference between neighbours above which material slides
+    private static final float thermalRate = 0.1f; // The fraction of the excess height difference that slides each step
+
+    private final float erodeSpeed;
+    private final float depositSpeed;
+    private final Modifier modifier;
+
+    public GridErosion(FilterSettings.Erosion settings, Modifier modifier) {
+        this.erodeSpeed = settings.erosionRate * 0.01f;
+        this.depositSpeed = settings.depositeRate * 0.01f;
+        this.modifier = modifier;
+    }
+
+    @Override
+    public void apply(Filterable map, int seedX, int seedZ, int iterations) {
+        apply(map, seedX, seedZ, iterations, new SyncBatcher());
+    }
+
+    @Override
+    public void apply(Filterable map, int seedX, int seedZ, int iterations, Batcher batcher) {
+        try (Heightfield heightfield = Heightfield.read(map, modifier); State state = new State(heightfield, map.getSize().total)) {
+            for (int i = 0; i < iterations; i++) {
+                run(batcher, state, this::flux);
+                run(batcher, state, this::erode);
+                run(batcher, state, this::transport);
+                run(batcher, state, this::thermal);
+                state.swapSediment();
+            }
+            run(batcher, state, this::settle);
+            heightfield.write(map.getBacking());
+        }
+    }
+
+    private void run(Batcher batcher, State state, Pass pass) {
+        int bands = (state.size + bandSize - 1) / bandSize;
+        batcher.size(bands);
+        for (int band = 0; band < bands; band++) {
+            int minZ = band * bandSize;
+            int maxZ = Math.min(state.size, minZ + bandSize);
+            batcher.submit(new Band(pass, state, minZ, maxZ));
+        }
+        batcher.close();
+    }
+
+    // rain falls & the outflow from each cell to its four neighbours is updated from the difference in water level
+    private void flux(State state, int minZ, int maxZ) {
+        int size = state.size;
+        float[] height = state.heightfield.value;
+        float[] water = state.water;
+        for (int z = minZ; z < maxZ; z++) {
+            for (int x = 0, i = z * size; x < size; x++, i++) {
+                float depth = water[i] + rainRate;
+                float level = height[i] + depth;
+                float left = x > 0 ? flow(state.fluxL[i], level - height[i - 1] - water[i - 1]) : 0;
+                float right = x < size - 1 ? flow(state.fluxR[i], level - height[i + 1] - water[i + 1]) : 0;
+                float up = z > 0 ? flow(state.fluxU[i], level - height[i - size] - water[i - size]) : 0;
+                float down = z < size - 1 ? flow(state.fluxD[i], level - height[i + size] - water[i + size]) : 0;
+
+                // scale the outflow down so that a cell can't lose more water than it holds
+                float total = left + right + up + down;
+                float scale = total > depth ? depth / total : 1F;
+
+                state.fluxL[i] = left * scale;
+                state.fluxR[i] = right * scale;
+                state.fluxU[i] = up * scale;
+                state.fluxD[i] = down * scale;
+                state.depth[i] = depth;
+            }
+        }
+    }
+
+    // water levels are updated from the net flow into each cell & the flowing water either picks up material from,
+    // or drops material onto, the terrain depending on how much it can carry at its speed down the local slope
+    private void erode(State state, int minZ, int maxZ) {
+        int size = state.size;
+        Heightfield heightfield = state.heightfield;
+        float[] height = heightfield.value;
+        for (int z = minZ; z < maxZ; z++) {
+            for (int x = 0, i = z * size; x < size; x++, i++) {
+                float inL = x > 0 ? state.fluxR[i - 1] : 0;
+                float inR = x < size - 1 ? state.fluxL[i + 1] : 0;
+                float inU = z > 0 ? state.fluxD[i - size] : 0;
+                float inD = z < size - 1 ? state.fluxU[i + size] : 0;
+                float out = state.fluxL[i] + state.fluxR[i] + state.fluxU[i] + state.fluxD[i];
+
+                float before = state.depth[i];
+                float after = Math.max(0, before + (inL + inR + inU + inD) - out);
+                float average = (before + after) * 0.5f;
+
+                // the velocity of the water passing through the cell
+                float velX = 0;
+                float velZ = 0;
+                if (average > 0) {
+                    velX = ((inL - state.fluxL[i]) + (state.fluxR[i] - inR)) * 0.5f / average;
+                    velZ = ((inU - state.fluxU[i]) + (state.fluxD[i] - inD)) * 0.5f / average;
+                }
+
+                float value = height[i];
+                float gradX = (height[i + (x < size - 1 ? 1 : 0)] - height[i - (x > 0 ? 1 : 0)]) * heightScale * 0.5f;
+                float gradZ = (height[i + (z < size - 1 ? size : 0)] - height[i - (z > 0 ? size : 0)]) * heightScale * 0.5f;
+                float slope2 = gradX * gradX + gradZ * gradZ;
+                float tilt = Math.max(minTilt, (float) Math.sqrt(slope2 / (1 + slope2)));
+                float speed = (float) Math.sqrt(velX * velX + velZ * velZ);
+                float capacity = sedimentCapacityFactor * tilt * speed * Math.min(after, 1F);
+
+                float sediment = state.sediment[i];
+                float weight = modifier.getValueModifier(value) * heightfield.strength[i];
+                if (capacity > sediment) {
+                    float change = weight * erodeSpeed * (capacity - sediment);
+                    value -= change;
+                    sediment += change;
+                    heightfield.erosion[i] -= change;
+                } else {
+                    float change = weight * depositSpeed * (sediment - capacity);
+                    value += change;
+                    sediment -= change;
+                    heightfield.sediment[i] += change;
+                }
+
+                state.height[i] = value;
+                state.sediment[i] = sediment;
+                state.water[i] = after * (1 - evaporateSpeed);
+            }
+        }
+    }
+
+    // suspended sediment moves with the water, each outflow carrying the same share of a cell's sediment as it does
+    // of the cell's water
+    private void transport(State state, int minZ, int maxZ) {
+        int size = state.size;
+        float[] sediment = state.sediment;
+        for (int z = minZ; z < maxZ; z++) {
+            for (int x = 0, i = z * size; x < size; x++, i++) {
+                float out = state.fluxL[i] + state.fluxR[i] + state.fluxU[i] + state.fluxD[i];
+                float value = sediment[i] * (1 - share(out, state.depth[i]));
+                if (x > 0) {
+                    value += sediment[i - 1] * share(state.fluxR[i - 1], state.depth[i - 1]);
+                }
+                if (x < size - 1) {
+                    value += sediment[i + 1] * share(state.fluxL[i + 1], state.depth[i + 1]);
+                }
+                if (z > 0) {
+                    value += sediment[i - size] * share(state.fluxD[i - size], state.depth[i - size]);
+                }
+                if (z < size - 1) {
+                    value += sediment[i + size] * share(state.fluxU[i + size], state.depth[i + size]);
+                }
+                state.sedimentNext[i] = value;
+            }
+        }
+    }
+
+    // material slides from each cell to any neighbour lower than it by more than the talus height. the amount moved
+    // between a pair of cells depends only on their heights so each cell can total its own gains & losses
+    private void thermal(State state, int minZ, int maxZ) {
+        int size = state.size;
+        Heightfield heightfield = state.heightfield;
+        float[] height = state.height;
+        for (int z = minZ; z < maxZ; z++) {
+            for (int x = 0, i = z * size; x < size; x++, i++) {
+                float value = height[i];
+                float change = 0;
+                if (x > 0) {
+                    change += slide(height[i - 1], value);
+                }
+                if (x < size - 1) {
+                    change += slide(height[i + 1], value);
+                }
+                if (z > 0) {
+                    change += slide(height[i - size], value);
+                }
+                if (z < size - 1) {
+                    change += slide(height[i + size], value);
+                }
+
+                change *= modifier.getValueModifier(value) * heightfield.strength[i];
+                if (change < 0) {
+                    heightfield.erosion[i] += change;
+                } else {
+                    heightfield.sediment[i] += change;
+                }
+                heightfield.value[i] = value + change;
+            }
+        }
+    }
+
+    // sediment still suspended at the end of the simulation is dropped where it is
+    private void settle(State state, int minZ, int maxZ) {
+        Heightfield heightfield = state.heightfield;
+        int end = maxZ * state.size;
+        for (int i = minZ * state.size; i < end; i++) {
+            float change = state.sediment[i] * heightfield.strength[i];
+            heightfield.value[i] += change;
+            heightfield.sediment[i] += change;
+        }
+    }
+
+    private static float share(float flux, float depth) {
+        return depth > 0 ? flux / depth : 0;
+    }
+
+    private static float flow(float flux, float levelDif) {
+        return Math.max(0, flux + pipeFlow * levelDif);
+    }
+
+    // the height gained by the cell at 'to' from the cell at 'from' (negative if material slides the other way)
+    private static float slide(float from, float to) {
+        float dif = from - to;
+        if (dif > talus) {
+            return (dif - talus) * thermalRate * 0.25f;
+        }
+        if (dif < -talus) {
+            return (dif + talus) * thermalRate * 0.25f;
+        }
+        return 0;
+    }
+
+    private interface Pass {
+
+        void apply(State state, int minZ, int maxZ);
+    }
+
+    private static class Band implements BatchTask {
+
+        private final Pass pass;
+        private final State state;
+        private final int minZ;
+        private final int maxZ;
+
+        private BatchTask.Notifier notifier = BatchTask.NONE;
+
+        private Band(Pass pass, State state, int minZ, int maxZ) {
+            this.pass = pass;
+            this.state = state;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        public void setNotifier(BatchTask.Notifier notifier) {
+            this.notifier = notifier;
+        }
+
+        @Override
+        public void run() {
+            try {
+                pass.apply(state, minZ, maxZ);
+            } finally {
+                notifier.markDone();
+            }
+        }
+    }
+
+    // the per-cell simulation buffers. height receives the terrain heights written by the erode pass (the thermal
+    // pass reads it & writes the result back to the heightfield), depth holds each cell's water before it flows &
+    // sedimentNext receives the transported sediment
+    private static class State implements SafeCloseable {
+
+        private final int size;
+        private final Heightfield heightfield;
+        private final Resource<?>[] resources = new Resource<?>[9];
+
+        private final float[] height;
+        private final float[] water;
+        private final float[] depth;
+        private final float[] fluxL;
+        private final float[] fluxR;
+        private final float[] fluxU;
+        private final float[] fluxD;
+
+        private float[] sediment;
+        private float[] sedimentNext;
+
+        private int count = 0;
+
+        private State(Heightfield heightfield, int size) {
+            this.size = size;
+            this.heightfield = heightfield;
+            this.height = zeroed();
+            this.water = zeroed();
+            this.depth = zeroed();
+            this.fluxL = zeroed();
+            this.fluxR = zeroed();
+            this.fluxU = zeroed();
+            this.fluxD = zeroed();
+            this.sediment = zeroed();
+            this.sedimentNext = zeroed();
+        }
+
+        private void swapSediment() {
+            float[] next = sedimentNext;
+            sedimentNext = sediment;
+            sediment = next;
+        }
+
+        // pooled arrays hold whatever they were last used for
+        private float[] zeroed() {
+            Resource<float[]> resource = FilterKernels.floats(heightfield.size);
+            resources[count++] = resource;
+            float[] array = resource.get();
+            Arrays.fill(array, 0, heightfield.size, 0F);
+            return array;
+        }
+
+        @Override
+        public void close() {
+            for (Resource<?> resource : resources) {
+                resource.close();
+            }
+        }
+    }
+
+    public static GridErosion create(GeneratorContext context) {
+        FilterSettings.Erosion settings = context.settings.filters.erosion.copy();
+        Modifier modifier = Modifier.range(context.levels.ground, context.levels.ground(15));
+        return new GridErosion(settings, modifier);
+    }
+}
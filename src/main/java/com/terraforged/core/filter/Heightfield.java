@@ -0,0 +1,61 @@
+package com.terraforged.core.filter;
+
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.cache.SafeCloseable;
+import com.terraforged.core.filter.kernel.FilterKernels;
+
+// flat copies of the cell columns that erosion reads & writes, taken from a map's CellBuffer & written back once the
+// filter is done. strength holds the height-independent part of the modifier for each cell, or zero for cells
+// excluded by the erosion mask, so the mask doesn't need an array of its own
+public class Heightfield implements SafeCloseable {
+
+    public final int size;
+    public final float[] value;
+    public final float[] strength;
+    public final float[] erosion;
+    public final float[] sediment;
+
+    private final Resource<float[]> valueResource;
+    private final Resource<float[]> strengthResource;
+    private final Resource<float[]> erosionResource;
+    private final Resource<float[]> sedimentResource;
+
+    private Heightfield(int size) {
+        this.size = size;
+        this.valueResource = FilterKernels.floats(size);
+        this.strengthResource = FilterKernels.floats(size);
+        this.erosionResource = FilterKernels.floats(size);
+        this.sedimentResource = FilterKernels.floats(size);
+        this.value = valueResource.get();
+        this.strength = strengthResource.get();
+        this.erosion = erosionResource.get();
+        this.sediment = sedimentResource.get();
+    }
+
+    public void write(CellBuffer buffer) {
+        buffer.writeValues(value, size);
+        buffer.writeErosion(erosion, size);
+        buffer.writeSediment(sediment, size);
+    }
+
+    @Override
+    public void close() {
+        valueResource.close();
+        strengthResource.close();
+        erosionResource.close();
+        sedimentResource.close();
+    }
+
+    public static Heightfield read(Filterable map, Modifier modifier) {
+        CellBuffer buffer = map.getBacking();
+        Heightfield heightfield = new Heightfield(map.getSize().arraySize);
+        buffer.readValues(heightfield.value, heightfield.size);
+        buffer.readErosion(heightfield.erosion, heightfield.size);
+        buffer.readSediment(heightfield.sediment, heightfield.size);
+        for (int i = 0; i < heightfield.size; i++) {
+            heightfield.strength[i] = buffer.getErosionMask(i) ? 0F : modifier.getStrengthModifier(buffer, i);
+        }
+        return heightfield;
+    }
+}
@@ -26,27 +26,52 @@
 package com.terraforged.core.filter;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBuffer;
 import com.terraforged.n2d.util.NoiseUtil;
+import com.terraforged.world.terrain.Terrain;
 
 public interface Modifier {
 
     float getValueModifier(float value);
 
     default float modify(Cell cell, float value) {
+        return modify(cell.terrain, cell.terrainRegionEdge, cell.riverMask, cell.value, value);
+    }
+
+    default float modify(CellBuffer buffer, int index, float value) {
+        return modify(
+                buffer.getTerrain(index),
+                buffer.getTerrainRegionEdge(index),
+                buffer.getRiverMask(index),
+                buffer.getValue(index),
+                value
+        );
+    }
+
+    default float modify(Terrain terrain, float terrainRegionEdge, float riverMask, float height, float value) {
+        return getValueModifier(height) * getStrengthModifier(terrain, terrainRegionEdge, riverMask) * value;
+    }
+
+    default float getStrengthModifier(CellBuffer buffer, int index) {
+        return getStrengthModifier(buffer.getTerrain(index), buffer.getTerrainRegionEdge(index), buffer.getRiverMask(index));
+    }
+
+    // the height-independent part of the modifier
+    default float getStrengthModifier(Terrain terrain, float terrainRegionEdge, float riverMask) {
         float strengthModifier = 1F;
 
         // reduce erosion strength towards the edge of terrain regions (that have an erosion modifier)
-        if (cell.terrain.erosionModifier() != 1F) {
-            float alpha = NoiseUtil.map(cell.terrainRegionEdge, 0F, 0.15F, 0.15F);
-            strengthModifier = NoiseUtil.lerp(1F, cell.terrain.erosionModifier(), alpha);
+        if (terrain.erosionModifier() != 1F) {
+            float alpha = NoiseUtil.map(terrainRegionEdge, 0F, 0.15F, 0.15F);
+            strengthModifier = NoiseUtil.lerp(1F, terrain.erosionModifier(), alpha);
         }
 
         // reduce erosion strength approaching rivers to prevent the bed getting filled up with sediment
-        if (cell.riverMask < 0.1F) {
-            strengthModifier *= NoiseUtil.map(cell.riverMask, 0.002F, 0.1F, 0.098F);
+        if (riverMask < 0.1F) {
+            strengthModifier *= NoiseUtil.map(riverMask, 0.002F, 0.1F, 0.098F);
         }
 
-        return getValueModifier(cell.value) * strengthModifier * value;
+        return strengthModifier;
     }
 
     default Modifier invert() {
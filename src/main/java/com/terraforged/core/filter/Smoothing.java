@@ -25,71 +25,63 @@
 
 package com.terraforged.core.filter;
 
-import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.filter.kernel.FilterKernel;
+import com.terraforged.core.filter.kernel.FilterKernels;
+import com.terraforged.core.filter.kernel.Stencil;
+import com.terraforged.core.settings.FilterSettings;
 import com.terraforged.core.settings.Settings;
+import com.terraforged.core.tile.Size;
 import com.terraforged.n2d.util.NoiseUtil;
 import com.terraforged.world.heightmap.Levels;
 
 public class Smoothing implements Filter {
 
-    private final int radius;
-    private final float rad2;
     private final float strength;
+    private final boolean separable;
+    private final Stencil stencil;
     private final Modifier modifier;
+    private final FilterKernel kernel;
 
     public Smoothing(Settings settings, Levels levels) {
-        this.radius = NoiseUtil.round(settings.filters.smoothing.smoothingRadius + 0.5F);
-        this.rad2 = settings.filters.smoothing.smoothingRadius * settings.filters.smoothing.smoothingRadius;
+        this(settings, levels, FilterKernels.get());
+    }
+
+    public Smoothing(Settings settings, Levels levels, FilterKernel kernel) {
+        int radius = NoiseUtil.round(settings.filters.smoothing.smoothingRadius + 0.5F);
+        float rad2 = settings.filters.smoothing.smoothingRadius * settings.filters.smoothing.smoothingRadius;
+        this.separable = settings.filters.smoothing.mode == FilterSettings.Smoothing.Mode.SEPARABLE;
+        this.stencil = separable ? Stencil.row(radius, rad2) : Stencil.radial(radius, rad2);
         this.strength = settings.filters.smoothing.smoothingRate;
         this.modifier = Modifier.range(levels.ground(1), levels.ground(120)).invert();
+        this.kernel = kernel;
     }
 
     @Override
     public void apply(Filterable map, int seedX, int seedZ, int iterations) {
-        while (iterations-- > 0) {
-            apply(map);
-        }
-    }
-
-    private void apply(Filterable cellMap) {
-        int maxZ = cellMap.getSize().total - radius;
-        int maxX = cellMap.getSize().total - radius;
-        for (int z = radius; z < maxZ; z++) {
-            for (int x = radius; x < maxX; x++) {
-                Cell cell = cellMap.getCellRaw(x, z);
-                if (cell.erosionMask) {
-                    continue;
-                }
+        Size size = map.getSize();
+        CellBuffer buffer = map.getBacking();
+        try (Resource<float[]> values = FilterKernels.floats(size.arraySize);
+             Resource<float[]> strengths = FilterKernels.floats(size.arraySize);
+             Resource<float[]> scratch = separable ? FilterKernels.floats(size.arraySize) : null) {
+            buffer.readValues(values.get(), size.arraySize);
 
-                float total = 0;
-                float weights = 0;
-
-                for (int dz = -radius; dz <= radius; dz++) {
-                    for (int dx = -radius; dx <= radius; dx++) {
-                        float dist2 = dx * dx + dz * dz;
-                        if (dist2 > rad2) {
-                            continue;
-                        }
-
-                        int px = x + dx;
-                        int pz = z + dz;
-                        Cell neighbour = cellMap.getCellRaw(px, pz);
-                        if (neighbour.isAbsent()) {
-                            continue;
-                        }
-
-                        float value = neighbour.value;
-                        float weight = 1F - (dist2 / rad2);
-                        total += (value * weight);
-                        weights += weight;
-                    }
-                }
+            // the height-independent part of the modifier doesn't change between iterations
+            float[] strength = strengths.get();
+            for (int i = 0; i < size.arraySize; i++) {
+                strength[i] = buffer.getErosionMask(i) ? 0F : modifier.getStrengthModifier(buffer, i);
+            }
 
-                if (weights > 0) {
-                    float dif = cell.value - (total / weights);
-                    cell.value -= modifier.modify(cell, dif * strength);
+            while (iterations-- > 0) {
+                if (separable) {
+                    kernel.smoothSeparable(values.get(), strength, scratch.get(), size.total, stencil, this.strength, modifier);
+                } else {
+                    kernel.smooth(values.get(), strength, size.total, stencil, this.strength, modifier);
                 }
             }
+
+            buffer.writeValues(values.get(), size.arraySize);
         }
     }
 }
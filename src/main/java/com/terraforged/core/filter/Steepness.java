@@ -25,52 +25,55 @@
 
 package com.terraforged.core.filter;
 
-import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.filter.kernel.FilterKernel;
+import com.terraforged.core.filter.kernel.FilterKernels;
+import com.terraforged.core.tile.Size;
 import com.terraforged.world.heightmap.Levels;
 import com.terraforged.world.terrain.Terrains;
 
-public class  Steepness implements Filter, Filter.Visitor {
+public class  Steepness implements Filter, StencilFilter {
 
     private final int radius;
     private final float scaler;
     private final float waterLevel;
     private final float maxBeachLevel;
     private final Terrains terrains;
+    private final FilterKernel kernel;
 
     public Steepness(int radius, float scaler, Terrains terrains, Levels levels) {
+        this(radius, scaler, terrains, levels, FilterKernels.get());
+    }
+
+    public Steepness(int radius, float scaler, Terrains terrains, Levels levels, FilterKernel kernel) {
         this.radius = radius;
         this.scaler = scaler;
         this.terrains = terrains;
         this.waterLevel = levels.water;
         this.maxBeachLevel = levels.water(6);
+        this.kernel = kernel;
     }
 
     @Override
     public void apply(Filterable cellMap, int seedX, int seedZ, int iterations) {
-        iterate(cellMap, this);
+        Size size = cellMap.getSize();
+        CellBuffer buffer = cellMap.getBacking();
+        try (Resource<float[]> values = FilterKernels.floats(size.arraySize);
+             Resource<float[]> gradients = FilterKernels.floats(size.arraySize)) {
+            buffer.readValues(values.get(), size.arraySize);
+            kernel.steepness(values.get(), gradients.get(), size.total, size.arraySize, radius, scaler, waterLevel);
+            buffer.writeGradients(gradients.get(), size.arraySize);
+        }
     }
 
     @Override
-    public void visit(Filterable cellMap, Cell cell, int cx, int cz) {
-        float totalHeightDif = 0F;
-        for (int dz = -1; dz <= 2; dz++) {
-            for (int dx = -1; dx <= 2; dx++) {
-                if (dx == 0 && dz == 0) {
-                    continue;
-                }
-
-                int x = cx + dx * radius;
-                int z = cz + dz * radius;
-                Cell neighbour = cellMap.getCellRaw(x, z);
-                if (neighbour.isAbsent()) {
-                    continue;
-                }
-
-                float height = Math.max(neighbour.value, waterLevel);
+    public void apply(CellBuffer buffer, Size size, float[] values, float[] scratch, int from, int to) {
+        kernel.steepness(values, scratch, size.total, size.arraySize, radius, scaler, waterLevel, from, to);
+    }
 
-                totalHeightDif += (Math.abs(cell.value - height) / radius);
-            }
-        }
-        cell.gradient = Math.min(1, totalHeightDif * scaler);
+    @Override
+    public void complete(CellBuffer buffer, Size size, float[] scratch) {
+        buffer.writeGradients(scratch, size.arraySize);
     }
 }
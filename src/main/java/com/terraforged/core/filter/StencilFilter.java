@@ -0,0 +1,19 @@
+package com.terraforged.core.filter;
+
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.tile.Size;
+
+// a filter that reads a neighbourhood of the map's heights without modifying them & writes results for individual
+// cells, so that any number of them can share one read of the heights & run over separate ranges of the map at once
+// (see FilterPipeline)
+public interface StencilFilter {
+
+    // processes the cells from index 'from' (inclusive) to 'to' (exclusive). values holds the heights of the whole
+    // map & scratch is a map-sized array belonging to this filter for the duration of the pass
+    void apply(CellBuffer buffer, Size size, float[] values, float[] scratch, int from, int to);
+
+    // called once every range of the map has been processed
+    default void complete(CellBuffer buffer, Size size, float[] scratch) {
+
+    }
+}
@@ -0,0 +1,40 @@
+package com.terraforged.core.filter.kernel;
+
+import com.terraforged.core.filter.Modifier;
+
+// primitive-array implementations of the stencil filters. arrays hold one value per cell of a square map, laid out
+// row-major (ie index = z * width + x) as in Size.indexOf
+public interface FilterKernel {
+
+    String getName();
+
+    // a single smoothing pass over the cells at least stencil.radius from the map edge. each cell moves towards the
+    // weighted average of its neighbourhood by rate, scaled by modifier & the cell's strength (cells with a strength
+    // of zero are skipped). cells are visited in row order, each reading the already-smoothed values of the cells
+    // before it
+    void smooth(float[] values, float[] strength, int width, Stencil stencil, float rate, Modifier modifier);
+
+    // an approximation of smooth using a row stencil (see Stencil.row) applied along the rows then the columns of the
+    // map, costing O(radius) per cell rather than O(radius^2). every cell moves towards the average of the unmodified
+    // neighbourhood, so (unlike smooth) results don't depend on the order cells are visited in. scratch must be at
+    // least as large as values
+    void smoothSeparable(float[] values, float[] strength, float[] scratch, int width, Stencil row, float rate, Modifier modifier);
+
+    // writes the steepness of each cell, measured against the 15 cells at multiples of radius in the 4x4 window
+    // around it, to gradients
+    default void steepness(float[] values, float[] gradients, int width, int size, int radius, float scaler, float waterLevel) {
+        steepness(values, gradients, width, size, radius, scaler, waterLevel, 0, size);
+    }
+
+    // as above for only the cells from index 'from' (inclusive) to 'to' (exclusive)
+    void steepness(float[] values, float[] gradients, int width, int size, int radius, float scaler, float waterLevel, int from, int to);
+
+    // writes the squared height gradient across each cell, measured between the cells radius away on either side,
+    // to gradients
+    default void beachGradient(float[] values, float[] gradients, int width, int size, int radius) {
+        beachGradient(values, gradients, width, size, radius, 0, size);
+    }
+
+    // as above for only the cells from index 'from' (inclusive) to 'to' (exclusive)
+    void beachGradient(float[] values, float[] gradients, int width, int size, int radius, int from, int to);
+}
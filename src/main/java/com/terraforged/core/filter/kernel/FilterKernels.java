@@ -0,0 +1,43 @@
+package com.terraforged.core.filter.kernel;
+
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.pool.FloatArrayPool;
+import com.terraforged.core.util.metric.Metrics;
+
+public class FilterKernels {
+
+    // only present when built with a JDK 16+ (see build.gradle) & usable when the jdk.incubator.vector module has
+    // been added to the runtime (--add-modules jdk.incubator.vector)
+    private static final String VECTOR_KERNEL = "com.terraforged.core.filter.kernel.VectorKernel";
+    private static final FloatArrayPool ARRAYS = new FloatArrayPool(32);
+    private static final FilterKernel KERNEL = load();
+
+    static {
+        Metrics.register("filter_arrays", ARRAYS);
+    }
+
+    public static FilterKernel get() {
+        return KERNEL;
+    }
+
+    public static FilterKernel scalar() {
+        return ScalarKernel.INSTANCE;
+    }
+
+    // a scratch array of at least the given size
+    public static Resource<float[]> floats(int size) {
+        return ARRAYS.get(size);
+    }
+
+    private static FilterKernel load() {
+        if (Boolean.getBoolean("terraforged.filters.scalar")) {
+            return ScalarKernel.INSTANCE;
+        }
+        try {
+            return (FilterKernel) Class.forName(VECTOR_KERNEL).getConstructor().newInstance();
+        } catch (Throwable t) {
+            // the class or the vector module is missing, or the runtime is too old
+            return ScalarKernel.INSTANCE;
+        }
+    }
+}
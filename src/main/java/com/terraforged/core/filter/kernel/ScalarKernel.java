@@ -0,0 +1,190 @@
+package com.terraforged.core.filter.kernel;
+
+import com.terraforged.core.filter.Modifier;
+
+// plain loop implementations. results match the original per-cell filters exactly. the interior of the map, where
+// every neighbour is in bounds, is handled separately from the edges so that the hot loops don't need bounds checks
+public class ScalarKernel implements FilterKernel {
+
+    public static final ScalarKernel INSTANCE = new ScalarKernel();
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void smooth(float[] values, float[] strength, int width, Stencil stencil, float rate, Modifier modifier) {
+        int[] offsets = stencil.offsets(width);
+        float[] weights = stencil.weights;
+        int max = width - stencil.radius;
+        for (int z = stencil.radius; z < max; z++) {
+            for (int x = stencil.radius, i = z * width + x; x < max; x++, i++) {
+                if (strength[i] == 0) {
+                    continue;
+                }
+
+                float total = 0;
+                for (int k = 0; k < offsets.length; k++) {
+                    total += (values[i + offsets[k]] * weights[k]);
+                }
+
+                values[i] = smooth(values[i], total, strength[i], stencil.weightSum, rate, modifier);
+            }
+        }
+    }
+
+    @Override
+    public void smoothSeparable(float[] values, float[] strength, float[] scratch, int width, Stencil row, float rate, Modifier modifier) {
+        int[] dx = row.dx;
+        float[] weights = row.weights;
+        float weightSum = row.weightSum * row.weightSum;
+        int min = row.radius;
+        int max = width - row.radius;
+
+        // weighted sums along each row (every row, as the column pass reads the rows above & below the smoothed area)
+        for (int z = 0; z < width; z++) {
+            for (int x = min, i = z * width + x; x < max; x++, i++) {
+                float total = 0;
+                for (int k = 0; k < dx.length; k++) {
+                    total += values[i + dx[k]] * weights[k];
+                }
+                scratch[i] = total;
+            }
+        }
+
+        // weighted sums of the row sums down each column. values aren't read by this pass so can be written in place
+        for (int z = min; z < max; z++) {
+            for (int x = min, i = z * width + x; x < max; x++, i++) {
+                if (strength[i] == 0) {
+                    continue;
+                }
+
+                float total = 0;
+                for (int k = 0; k < dx.length; k++) {
+                    total += scratch[i + dx[k] * width] * weights[k];
+                }
+
+                values[i] = smooth(values[i], total, strength[i], weightSum, rate, modifier);
+            }
+        }
+    }
+
+    @Override
+    public void steepness(float[] values, float[] gradients, int width, int size, int radius, float scaler, float waterLevel, int from, int to) {
+        int[] offsets = steepnessOffsets(width, radius);
+        int start = Math.max(from, steepnessStart(width, size, radius));
+        int end = Math.min(to, steepnessEnd(width, size, radius));
+
+        steepnessEdge(values, gradients, offsets, from, Math.min(to, start), size, radius, scaler, waterLevel);
+        for (int i = start; i < end; i++) {
+            gradients[i] = steepness(values, offsets, i, radius, scaler, waterLevel);
+        }
+        steepnessEdge(values, gradients, offsets, Math.max(from, end), to, size, radius, scaler, waterLevel);
+    }
+
+    @Override
+    public void beachGradient(float[] values, float[] gradients, int width, int size, int radius, int from, int to) {
+        int start = Math.max(from, beachStart(width, size, radius));
+        int end = Math.min(to, beachEnd(width, size, radius));
+        float distance = radius + 1 + radius;
+
+        beachEdge(values, gradients, width, from, Math.min(to, start), size, radius);
+        for (int i = start; i < end; i++) {
+            float gx = (values[i + radius] - values[i - radius]) / distance;
+            float gz = (values[i - radius * width] - values[i + radius * width]) / distance;
+            gradients[i] = gx * gx + gz * gz;
+        }
+        beachEdge(values, gradients, width, Math.max(from, end), to, size, radius);
+    }
+
+    static float smooth(float value, float total, float strength, float weightSum, float rate, Modifier modifier) {
+        float dif = value - (total / weightSum);
+        return value - (modifier.getValueModifier(value) * strength) * (dif * rate);
+    }
+
+    // the offsets of the cells in the window dx,dz = -1..2 (excluding 0,0), scaled by radius
+    static int[] steepnessOffsets(int width, int radius) {
+        int[] offsets = new int[15];
+        for (int dz = -1, i = 0; dz <= 2; dz++) {
+            for (int dx = -1; dx <= 2; dx++) {
+                if (dx == 0 && dz == 0) {
+                    continue;
+                }
+                offsets[i++] = (dz * radius) * width + (dx * radius);
+            }
+        }
+        return offsets;
+    }
+
+    // the first index for which every steepness neighbour is in bounds
+    static int steepnessStart(int width, int size, int radius) {
+        return Math.min(size, radius * width + radius);
+    }
+
+    // the index after the last for which every steepness neighbour is in bounds
+    static int steepnessEnd(int width, int size, int radius) {
+        return Math.max(steepnessStart(width, size, radius), size - 2 * (radius * width + radius));
+    }
+
+    static float steepness(float[] values, int[] offsets, int i, int radius, float scaler, float waterLevel) {
+        float value = values[i];
+        float totalHeightDif = 0F;
+        for (int offset : offsets) {
+            float height = Math.max(values[i + offset], waterLevel);
+            totalHeightDif += (Math.abs(value - height) / radius);
+        }
+        return Math.min(1, totalHeightDif * scaler);
+    }
+
+    // neighbours that fall outside the array are ignored
+    static void steepnessEdge(float[] values, float[] gradients, int[] offsets, int from, int to, int size, int radius, float scaler, float waterLevel) {
+        for (int i = from; i < to; i++) {
+            float value = values[i];
+            float totalHeightDif = 0F;
+            for (int offset : offsets) {
+                int neighbour = i + offset;
+                if (neighbour < 0 || neighbour >= size) {
+                    continue;
+                }
+                float height = Math.max(values[neighbour], waterLevel);
+                totalHeightDif += (Math.abs(value - height) / radius);
+            }
+            gradients[i] = Math.min(1, totalHeightDif * scaler);
+        }
+    }
+
+    static int beachStart(int width, int size, int radius) {
+        return Math.min(size, radius * width);
+    }
+
+    static int beachEnd(int width, int size, int radius) {
+        return Math.max(beachStart(width, size, radius), size - radius * width);
+    }
+
+    // neighbours that fall outside the array take the cell's own value & shorten the distance measured over
+    static void beachEdge(float[] values, float[] gradients, int width, int from, int to, int size, int radius) {
+        for (int i = from; i < to; i++) {
+            float gx = beachGrad(values, i, i + radius, i - radius, size, radius);
+            float gz = beachGrad(values, i, i - radius * width, i + radius * width, size, radius);
+            gradients[i] = gx * gx + gz * gz;
+        }
+    }
+
+    private static float beachGrad(float[] values, int i, int a, int b, int size, int radius) {
+        int distance = radius + 1 + radius;
+        float valueA = values[i];
+        float valueB = values[i];
+        if (a < 0 || a >= size) {
+            distance -= radius;
+        } else {
+            valueA = values[a];
+        }
+        if (b < 0 || b >= size) {
+            distance -= radius;
+        } else {
+            valueB = values[b];
+        }
+        return (valueA - valueB) / distance;
+    }
+}
@@ -0,0 +1,93 @@
+package com.terraforged.core.filter.kernel;
+
+import java.util.Arrays;
+
+// the (dx, dz) offsets & weights of a square neighbourhood kernel, in row order
+public class Stencil {
+
+    public final int radius;
+    public final int[] dx;
+    public final int[] dz;
+    public final float[] weights;
+    public final float weightSum;
+
+    private Stencil(int radius, int[] dx, int[] dz, float[] weights) {
+        float sum = 0F;
+        for (float weight : weights) {
+            sum += weight;
+        }
+        this.radius = radius;
+        this.dx = dx;
+        this.dz = dz;
+        this.weights = weights;
+        this.weightSum = sum;
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    // the index offset of each point for a map of the given width
+    public int[] offsets(int width) {
+        int[] offsets = new int[dx.length];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = dz[i] * width + dx[i];
+        }
+        return offsets;
+    }
+
+    // the points of a single row within sqrt(rad2) of the centre weighted by 1 - (distance^2 / rad2). applied along
+    // the rows & then the columns of a map, the combined weight of each point is the product of its row & column
+    // weights, which approximates the radial stencil below (summing to weightSum^2)
+    public static Stencil row(int radius, float rad2) {
+        int[] dx = new int[radius + 1 + radius];
+        float[] weights = new float[radius + 1 + radius];
+
+        int count = 0;
+        for (int x = -radius; x <= radius; x++) {
+            float dist2 = x * x;
+            if (dist2 > rad2) {
+                continue;
+            }
+            dx[count] = x;
+            weights[count] = 1F - (dist2 / rad2);
+            count++;
+        }
+
+        return new Stencil(
+                radius,
+                Arrays.copyOf(dx, count),
+                new int[count],
+                Arrays.copyOf(weights, count)
+        );
+    }
+
+    // the points within sqrt(rad2) of the centre weighted by 1 - (distance^2 / rad2)
+    public static Stencil radial(int radius, float rad2) {
+        int diameter = radius + 1 + radius;
+        int[] dx = new int[diameter * diameter];
+        int[] dz = new int[diameter * diameter];
+        float[] weights = new float[diameter * diameter];
+
+        int count = 0;
+        for (int z = -radius; z <= radius; z++) {
+            for (int x = -radius; x <= radius; x++) {
+                float dist2 = x * x + z * z;
+                if (dist2 > rad2) {
+                    continue;
+                }
+                dx[count] = x;
+                dz[count] = z;
+                weights[count] = 1F - (dist2 / rad2);
+                count++;
+            }
+        }
+
+        return new Stencil(
+                radius,
+                Arrays.copyOf(dx, count),
+                Arrays.copyOf(dz, count),
+                Arrays.copyOf(weights, count)
+        );
+    }
+}
@@ -26,6 +26,7 @@
 package com.terraforged.core.module;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.cell.Populator;
 import com.terraforged.n2d.Module;
 import com.terraforged.n2d.func.Interpolation;
@@ -93,4 +94,34 @@ public class Blender extends Select implements Populator {
             cell.terrain = lowerType;
         }
     }
+
+    @Override
+    public void applyBlock(CellBlock block) {
+        float[] select = block.pushFloats();
+        float[] alpha = block.pushFloats();
+        Terrain[] lowerTypes = block.pushTerrains();
+
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            select[i] = getSelect(block.cells[i], block.x[i], block.z[i]);
+            if (select[i] < blendLower) {
+                alpha[i] = CellBlock.LOWER;
+            } else if (select[i] > blendUpper) {
+                alpha[i] = CellBlock.UPPER;
+            } else {
+                alpha[i] = Interpolation.LINEAR.apply((select[i] - blendLower) / blendRange);
+            }
+        }
+
+        block.blend(lower, upper, alpha, lowerTypes);
+
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            if (alpha[i] != CellBlock.LOWER && alpha[i] != CellBlock.UPPER && select[i] < midpoint) {
+                block.cells[i].terrain = lowerTypes[i];
+            }
+        }
+
+        block.popTerrains();
+        block.popFloats();
+        block.popFloats();
+    }
 }
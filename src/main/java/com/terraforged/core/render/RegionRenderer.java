@@ -31,23 +31,22 @@ public class RegionRenderer {
         float w = settings.width / (resolution - 1F);
         float h = settings.width / (resolution - 1F);
         float unit = w / settings.zoom;
+        Cell cell = new Cell();
+        Cell neighbour = new Cell();
         RenderBuffer shape = context.createBuffer();
         shape.beginQuads();
         shape.noFill();
         for (int dy = 0; dy < resolution; dy++) {
             for (int dx = 0; dx < resolution; dx++) {
-                draw(shape, region.getTile(), dx, dy, resolution, w, h, unit);
+                draw(shape, region.getTile(), cell, neighbour, dx, dy, resolution, w, h, unit);
             }
         }
         shape.endQuads();
         region.setMesh(shape);
     }
 
-    private void draw(RenderBuffer shape, Tile tile, int dx, int dz, int resolution, float w, float h, float unit) {
-        Cell cell = tile.getCell(dx, dz);
-        if (cell == null) {
-            return;
-        }
+    private void draw(RenderBuffer shape, Tile tile, Cell cell, Cell neighbour, int dx, int dz, int resolution, float w, float h, float unit) {
+        tile.getCell(dx, dz, cell);
 
         float height = cell.value * settings.levels.worldHeight;
         float x = dx * w;
@@ -81,44 +80,41 @@ public class RegionRenderer {
         if (dz <= 0 && dx >= resolution - 1) {
             drawEdge(shape, dx, y, dz, w, h, false);
             drawEdge(shape, dx + 1, y, dz, w, h, true);
-            drawFace(shape, tile, dx, y, dz, dx - 1, dz, w, h, unit);
+            drawFace(shape, tile, neighbour, dx, y, dz, dx - 1, dz, w, h, unit);
             return;
         }
 
         if (dx <= 0) {
             drawEdge(shape, dx, y, dz, w, h, true);
-            drawFace(shape, tile, dx, y, dz, dx, dz - 1, w, h, unit);
+            drawFace(shape, tile, neighbour, dx, y, dz, dx, dz - 1, w, h, unit);
             return;
         }
         if (dz <= 0) {
             drawEdge(shape, dx, y, dz, w, h, false);
-            drawFace(shape, tile, dx, y, dz, dx - 1, dz, w, h, unit);
+            drawFace(shape, tile, neighbour, dx, y, dz, dx - 1, dz, w, h, unit);
             return;
         }
 
         if (dx >= resolution - 1) {
             drawEdge(shape, dx + 1, y, dz, w, h, true);
-            drawFace(shape, tile, dx, y, dz, dx, dz - 1, w, h, unit);
-            drawFace(shape, tile, dx, y, dz, dx - 1, dz, w, h, unit);
+            drawFace(shape, tile, neighbour, dx, y, dz, dx, dz - 1, w, h, unit);
+            drawFace(shape, tile, neighbour, dx, y, dz, dx - 1, dz, w, h, unit);
             return;
         }
 
         if (dz >= resolution - 1) {
             drawEdge(shape, dx, y, dz + 1, w, h, false);
-            drawFace(shape, tile, dx, y, dz, dx - 1, dz, w, h, unit);
-            drawFace(shape, tile, dx, y, dz, dx, dz - 1, w, h, unit);
+            drawFace(shape, tile, neighbour, dx, y, dz, dx - 1, dz, w, h, unit);
+            drawFace(shape, tile, neighbour, dx, y, dz, dx, dz - 1, w, h, unit);
             return;
         }
 
-        drawFace(shape, tile, dx, y, dz, dx - 1, dz, w, h, unit);
-        drawFace(shape, tile, dx, y, dz, dx, dz - 1, w, h, unit);
+        drawFace(shape, tile, neighbour, dx, y, dz, dx - 1, dz, w, h, unit);
+        drawFace(shape, tile, neighbour, dx, y, dz, dx, dz - 1, w, h, unit);
     }
 
-    private void drawFace(RenderBuffer shape, Tile tile, int px, int py, int pz, int dx, int dz, float w, float h, float unit) {
-        Cell cell = tile.getCell(dx, dz);
-        if (cell == null) {
-            return;
-        }
+    private void drawFace(RenderBuffer shape, Tile tile, Cell cell, int px, int py, int pz, int dx, int dz, float w, float h, float unit) {
+        tile.getCell(dx, dz, cell);
 
         float height = cell.value * settings.levels.worldHeight;
         int y = getY(height, unit);
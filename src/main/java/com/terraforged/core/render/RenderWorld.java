@@ -18,6 +18,11 @@ public class RenderWorld {
     private final RenderRegion[] view;
     private final CacheEntry<RenderRegion>[] queue;
 
+    // the last requested view, so that a change to only the filters can re-filter the existing tiles
+    private float viewX = Float.NaN;
+    private float viewY = Float.NaN;
+    private float viewZoom = Float.NaN;
+
     public RenderWorld(ThreadPool threadPool, TileGenerator generator, RenderAPI context, RenderSettings settings, int regionCount, int regionSize) {
         this.threadPool = threadPool;
         this.context = context;
@@ -87,12 +92,25 @@ public class RenderWorld {
             }
             if (entry.isDone()) {
                 queue[i] = null;
+                RenderRegion previous = view[i];
                 view[i] = entry.get();
+                // returns the replaced tile's pooled buffers & snapshot. the queued tiles have all completed so
+                // nothing is still copying from it
+                if (previous != null && previous.getTile() != view[i].getTile()) {
+                    previous.getTile().close();
+                }
             }
         }
     }
 
     public void update(float x, float y, float zoom, boolean filters) {
+        if (x == viewX && y == viewY && zoom == viewZoom && refilter(filters)) {
+            return;
+        }
+
+        viewX = x;
+        viewY = y;
+        viewZoom = zoom;
         renderer.getSettings().zoom = zoom;
         renderer.getSettings().resolution = getResolution();
         float factor = regionCount > 1 ? (regionCount - 1F) / regionCount : 0F;
@@ -107,6 +125,20 @@ public class RenderWorld {
         }
     }
 
+    // re-filters copies of the tiles currently in view, provided they're all complete & hold a snapshot of their
+    // heights. the tiles in view are left untouched (so can still be drawn) until refresh() swaps in the copies
+    private boolean refilter(boolean filters) {
+        for (int i = 0; i < view.length; i++) {
+            if (queue[i] != null || view[i] == null || view[i].getTile().getSnapshot() == null) {
+                return false;
+            }
+        }
+        for (int i = 0; i < view.length; i++) {
+            queue[i] = generator.refilter(view[i].getTile(), filters).then(threadPool, renderer::render);
+        }
+        return true;
+    }
+
     public void render() {
         int resolution = getResolution();
         float w = renderer.getSettings().width / (float) (resolution - 1);
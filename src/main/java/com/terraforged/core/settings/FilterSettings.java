@@ -39,6 +39,12 @@ public class FilterSettings {
     @Serializable
     public static class Erosion {
 
+        @Comment({
+                "The erosion simulation to use. DROPLETS traces individual water droplets (controlled by iterations &",
+                "the droplet settings). GRID advances water & sediment across every cell at once (controlled by gridSteps)"
+        })
+        public Mode mode = Mode.DROPLETS;
+
         @Range(min = 1000, max = 50000)
         @Comment("Controls the number of erosion iterations")
         public int iterations = 15000;
@@ -63,6 +69,22 @@ public class FilterSettings {
         @Comment("Controls the starting velocity of the simulated water droplet")
         public float dropletVelocity = 0.7F;
 
+        @Comment({
+                "Simulates droplets in independent partitions of each tile so that erosion can use multiple threads.",
+                "Results are deterministic but differ from the serial simulation"
+        })
+        public boolean parallel = false;
+
+        @Comment({
+                "Draws droplets from a fixed grid over the world instead of per tile so that erosion lines up across",
+                "tile edges. Tiles need a border of at least dropletLifetime + 5 blocks. Takes priority over parallel"
+        })
+        public boolean worldSpace = false;
+
+        @Range(min = 1, max = 500)
+        @Comment("Controls the number of steps simulated by GRID erosion")
+        public int gridSteps = 80;
+
         public Erosion() {
 
         }
@@ -75,8 +97,17 @@ public class FilterSettings {
             erosion.dropletLifetime = dropletLifetime;
             erosion.dropletVolume = dropletVolume;
             erosion.dropletVelocity = dropletVelocity;
+            erosion.parallel = parallel;
+            erosion.worldSpace = worldSpace;
+            erosion.mode = mode;
+            erosion.gridSteps = gridSteps;
             return erosion;
         }
+
+        public enum Mode {
+            DROPLETS,
+            GRID,
+        }
     }
 
     @Serializable
@@ -93,5 +124,16 @@ public class FilterSettings {
         @Range(min = 0, max = 1)
         @Comment("Controls how strongly smoothing is applied")
         public float smoothingRate = 0.85F;
+
+        @Comment({
+                "The smoothing kernel to use. EXACT weights every neighbour within the smoothing radius. SEPARABLE",
+                "approximates it with a pass along rows then columns, which is much faster for large radii"
+        })
+        public Mode mode = Mode.EXACT;
+
+        public enum Mode {
+            EXACT,
+            SEPARABLE,
+        }
     }
 }
@@ -26,6 +26,8 @@
 package com.terraforged.core.tile;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
+import com.terraforged.core.cell.CellBuffer;
 import com.terraforged.core.concurrent.Disposable;
 import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.batch.Batcher;
@@ -37,7 +39,6 @@ import com.terraforged.core.tile.chunk.ChunkReader;
 import com.terraforged.core.tile.chunk.ChunkWriter;
 import com.terraforged.core.tile.gen.TileResources;
 import com.terraforged.world.heightmap.Heightmap;
-import com.terraforged.world.rivermap.Rivermap;
 
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -45,6 +46,9 @@ import java.util.function.Consumer;
 
 public class Tile implements Disposable, SafeCloseable {
 
+    private static final int CLOSING = 1 << 30;
+    private static final int RELEASED = 1 << 29;
+
     private final int regionX;
     private final int regionZ;
     private final int chunkX;
@@ -55,14 +59,19 @@ public class Tile implements Disposable, SafeCloseable {
     private final int chunkCount;
     private final Size blockSize;
     private final Size chunkSize;
-    private final Cell[] blocks;
+    private final CellBuffer blocks;
     private final GenChunk[] chunks;
+    private final TileResources resources;
 
     // keeps reference to the pooled resources so they can be released once the region has been disposed
-    private final Resource<Cell[]> blockResource;
+    private final Resource<CellBuffer> blockResource;
     private final Resource<GenChunk[]> chunkResource;
 
-    // keeps track of 'open/active' chunks (ie chunks that are being read from)
+    // the tile's heights before filtering, so the filters can be re-run without regenerating. null unless taken
+    private Resource<float[]> snapshot;
+
+    // keeps track of 'open/active' chunks (ie chunks that are being read from), plus the CLOSING bit once closed.
+    // resources are released by whichever of close() or the last ChunkView.close() sees no chunks open after closing
     private final AtomicInteger active = new AtomicInteger();
 
     // keeps track of 'disposed' chunks (ie chunks that we do not expect to read from again)
@@ -72,6 +81,9 @@ public class Tile implements Disposable, SafeCloseable {
     // basically the RegionCache
     private final Disposable.Listener<Tile> listener;
 
+    // false once the tile has been generated at a zoom, where its cells no longer map one-to-one onto world blocks
+    private boolean worldAligned = true;
+
     public Tile(int regionX, int regionZ, int size, int borderChunks, TileResources resources, Listener<Tile> listener) {
         this.regionX = regionX;
         this.regionZ = regionZ;
@@ -84,7 +96,8 @@ public class Tile implements Disposable, SafeCloseable {
         this.chunkSize = Size.chunks(size, borderChunks);
         this.blockSize = Size.blocks(size, borderChunks);
         this.chunkCount = chunkSize.size * chunkSize.size;
-        this.blockResource = resources.blocks.get(blockSize.arraySize);
+        this.resources = resources;
+        this.blockResource = resources.getBlocks(blockSize.arraySize);
         this.chunkResource = resources.chunks.get(chunkSize.arraySize);
         this.blocks = blockResource.get();
         this.chunks = chunkResource.get();
@@ -107,23 +120,41 @@ public class Tile implements Disposable, SafeCloseable {
      */
     @Override
     public void close() {
-        // only dispose resources if there are no chunks actively being used
-        if (active.compareAndSet(0, -1)) {
-            if (blockResource.isOpen()) {
-                // cells can be reused
-                for (Cell cell : blocks) {
-                    if (cell != null) {
-                        cell.reset();
-                    }
+        while (true) {
+            int count = active.get();
+            if ((count & CLOSING) != 0) {
+                return;
+            }
+            if (active.compareAndSet(count, count | CLOSING)) {
+                if (count == 0) {
+                    release();
                 }
-                blockResource.close();
+                return;
             }
+        }
+    }
 
-            if (chunkResource.isOpen()) {
-                // chunks must be null'd
-                Arrays.fill(chunks, null);
-                chunkResource.close();
-            }
+    // only dispose resources once there are no chunks actively being used
+    private void release() {
+        if (!active.compareAndSet(CLOSING, CLOSING | RELEASED)) {
+            return;
+        }
+
+        if (blockResource.isOpen()) {
+            // buffer can be reused
+            blocks.clear();
+            blockResource.close();
+        }
+
+        if (chunkResource.isOpen()) {
+            // chunks must be null'd
+            Arrays.fill(chunks, null);
+            chunkResource.close();
+        }
+
+        if (snapshot != null) {
+            snapshot.close();
+            snapshot = null;
         }
     }
 
@@ -155,8 +186,13 @@ public class Tile implements Disposable, SafeCloseable {
         return chunks.length;
     }
 
+    // true while any of the tile's chunks are open for reading
+    public boolean isActive() {
+        return (active.get() & ~(CLOSING | RELEASED)) > 0;
+    }
+
     public int getBlockCount() {
-        return blocks.length;
+        return blocks.capacity();
     }
 
     public Size getChunkSize() {
@@ -167,20 +203,53 @@ public class Tile implements Disposable, SafeCloseable {
         return blockSize;
     }
 
+    // copies the current heights into a pooled array that's kept until the tile is closed
+    public void snapshot() {
+        if (snapshot == null) {
+            snapshot = resources.snapshots.get(blockSize.arraySize);
+        }
+        blocks.readValues(snapshot.get(), blockSize.arraySize);
+    }
+
+    // the heights copied by the last call to snapshot(), or null. may be longer than the tile
+    public float[] getSnapshot() {
+        Resource<float[]> snapshot = this.snapshot;
+        return snapshot == null ? null : snapshot.get();
+    }
+
+    // copies the cells & snapshot into another (empty) tile of the same region & size, so that the copy can be
+    // updated without affecting readers of this tile
+    public void copyTo(Tile other) {
+        other.worldAligned = worldAligned;
+        other.load(cells -> blocks.copyTo(cells, blockSize.arraySize));
+        Resource<float[]> snapshot = this.snapshot;
+        if (snapshot != null) {
+            if (other.snapshot == null) {
+                other.snapshot = resources.snapshots.get(blockSize.arraySize);
+            }
+            System.arraycopy(snapshot.get(), 0, other.snapshot.get(), 0, blockSize.arraySize);
+        }
+    }
+
     public Filterable filterable() {
         return new FilterRegion();
     }
 
     public Cell getCell(int blockX, int blockZ) {
+        return getCell(blockX, blockZ, new Cell());
+    }
+
+    // copies the cell at the given position into the provided cell
+    public Cell getCell(int blockX, int blockZ, Cell cell) {
         int relBlockX = blockSize.border + blockSize.mask(blockX);
         int relBlockZ = blockSize.border + blockSize.mask(blockZ);
         int index = blockSize.indexOf(relBlockX, relBlockZ);
-        return blocks[index];
+        return blocks.load(index, cell);
     }
 
     public Cell getRawCell(int blockX, int blockZ) {
         int index = blockSize.indexOf(blockX, blockZ);
-        return blocks[index];
+        return blocks.load(index, new Cell());
     }
 
     public ChunkWriter getChunkWriter(int chunkX, int chunkZ) {
@@ -195,34 +264,35 @@ public class Tile implements Disposable, SafeCloseable {
         return chunks[index].open();
     }
 
+    // populates the tile from existing cell data (ie read from disk) rather than generating it
+    public void load(Consumer<CellBuffer> loader) {
+        for (int cz = 0; cz < chunkSize.total; cz++) {
+            for (int cx = 0; cx < chunkSize.total; cx++) {
+                computeChunk(chunkSize.indexOf(cx, cz), cx, cz);
+            }
+        }
+        loader.accept(blocks);
+    }
+
     public void generate(Consumer<ChunkWriter> consumer) {
         for (int cz = 0; cz < chunkSize.total; cz++) {
             for (int cx = 0; cx < chunkSize.total; cx++) {
                 int index = chunkSize.indexOf(cx, cz);
                 GenChunk chunk = computeChunk(index, cx, cz);
                 consumer.accept(chunk);
+                chunk.flush();
             }
         }
     }
 
     public void generate(Heightmap heightmap) {
-        Rivermap riverMap = null;
         for (int cz = 0; cz < chunkSize.total; cz++) {
             for (int cx = 0; cx < chunkSize.total; cx++) {
                 int index = chunkSize.indexOf(cx, cz);
                 GenChunk chunk = computeChunk(index, cx, cz);
-                for (int dz = 0; dz < 16; dz++) {
-                    for (int dx = 0; dx < 16; dx++) {
-                        float x = chunk.getBlockX() + dx;
-                        float z = chunk.getBlockZ() + dz;
-                        Cell cell = chunk.genCell(dx, dz);
-                        heightmap.applyBase(cell, x, z);
-
-                        riverMap = Rivermap.get(cell, riverMap, heightmap);
-                        heightmap.applyRivers(cell, x, z, riverMap);
-
-                        heightmap.applyClimate(cell, x, z);
-                    }
+                try (Resource<CellBlock> block = CellBlock.pooled()) {
+                    heightmap.applyBlock(block.get().init(chunk.getBlockX(), chunk.getBlockZ()));
+                    chunk.write(block.get());
                 }
             }
         }
@@ -239,32 +309,23 @@ public class Tile implements Disposable, SafeCloseable {
     }
 
     public void generate(Heightmap heightmap, float offsetX, float offsetZ, float zoom) {
-        Rivermap riverMap = null;
+        worldAligned = false;
         float translateX = offsetX - ((blockSize.size * zoom) / 2F);
         float translateZ = offsetZ - ((blockSize.size * zoom) / 2F);
         for (int cz = 0; cz < chunkSize.total; cz++) {
             for (int cx = 0; cx < chunkSize.total; cx++) {
                 int index = chunkSize.indexOf(cx, cz);
                 GenChunk chunk = computeChunk(index, cx, cz);
-                for (int dz = 0; dz < 16; dz++) {
-                    for (int dx = 0; dx < 16; dx++) {
-                        float x = ((chunk.getBlockX() + dx) * zoom) + translateX;
-                        float z = ((chunk.getBlockZ() + dz) * zoom) + translateZ;
-                        Cell cell = chunk.genCell(dx, dz);
-
-                        heightmap.applyBase(cell, x, z);
-
-                        riverMap = Rivermap.get(cell, riverMap, heightmap);
-                        heightmap.applyRivers(cell, x, z, riverMap);
-
-                        heightmap.applyClimate(cell, x, z);
-                    }
+                try (Resource<CellBlock> block = CellBlock.pooled()) {
+                    heightmap.applyBlock(block.get().init(chunk.getBlockX(), chunk.getBlockZ(), zoom, translateX, translateZ));
+                    chunk.write(block.get());
                 }
             }
         }
     }
 
     public void generate(Heightmap heightmap, Batcher batcher, float offsetX, float offsetZ, float zoom) {
+        worldAligned = false;
         float translateX = offsetX - ((blockSize.size * zoom) / 2F);
         float translateZ = offsetZ - ((blockSize.size * zoom) / 2F);
         batcher.size(chunkSize.total * chunkSize.total);
@@ -296,6 +357,7 @@ public class Tile implements Disposable, SafeCloseable {
     }
 
     public void generateArea(Heightmap heightmap, Batcher batcher, int batchSize, float offsetX, float offsetZ, float zoom) {
+        worldAligned = false;
         int jobSize = Math.max(1, chunkSize.total / batchSize);
         int jobCount = chunkSize.total / jobSize;
         if (jobCount * jobSize < chunkSize.total) {
@@ -316,13 +378,14 @@ public class Tile implements Disposable, SafeCloseable {
     }
 
     public void iterate(Cell.Visitor visitor) {
+        Cell cell = new Cell();
         for (int dz = 0; dz < blockSize.size; dz++) {
             int z = blockSize.border + dz;
             for (int dx = 0; dx < blockSize.size; dx++) {
                 int x = blockSize.border + dx;
                 int index = blockSize.indexOf(x, z);
-                Cell cell = blocks[index];
-                visitor.visit(cell, dx, dz);
+                visitor.visit(blocks.load(index, cell), dx, dz);
+                blocks.store(index, cell);
             }
         }
     }
@@ -336,16 +399,7 @@ public class Tile implements Disposable, SafeCloseable {
         return chunk;
     }
 
-    private Cell computeCell(int index) {
-        Cell cell = blocks[index];
-        if (cell == null) {
-            cell = new Cell();
-            blocks[index] = cell;
-        }
-        return cell;
-    }
-
-    public class GenChunk implements ChunkReader, ChunkWriter {
+    public class GenChunk implements ChunkWriter {
 
         private final int chunkX;
         private final int chunkZ;
@@ -354,6 +408,11 @@ public class Tile implements Disposable, SafeCloseable {
         private final int regionBlockX;
         private final int regionBlockZ;
 
+        // the cell currently being generated. it is written back to the buffer when the next cell is
+        // requested or the chunk is flushed
+        private final Cell cursor = new Cell();
+        private int cursorIndex = -1;
+
         // the coordinate of the chunk within this region (relative to 0,0)
         private GenChunk(int regionChunkX, int regionChunkZ) {
             // the block coordinate of this chunk within this region (relative 0,0)
@@ -367,14 +426,90 @@ public class Tile implements Disposable, SafeCloseable {
             this.blockZ = chunkZ << 4;
         }
 
-        public GenChunk open() {
+        public ChunkReader open() {
             active.getAndIncrement();
-            return this;
+            return new ChunkView(this);
+        }
+
+        @Override
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        @Override
+        public int getChunkZ() {
+            return chunkZ;
+        }
+
+        @Override
+        public int getBlockX() {
+            return blockX;
+        }
+
+        @Override
+        public int getBlockZ() {
+            return blockZ;
+        }
+
+        @Override
+        public Cell genCell(int blockX, int blockZ) {
+            flush();
+            cursorIndex = indexOf(blockX, blockZ);
+            return blocks.load(cursorIndex, cursor);
+        }
+
+        @Override
+        public void flush() {
+            if (cursorIndex != -1) {
+                blocks.store(cursorIndex, cursor);
+                cursorIndex = -1;
+            }
+        }
+
+        // stores the block's cells directly rather than via the cursor
+        @Override
+        public void write(CellBlock block) {
+            flush();
+            for (int dz = 0, i = 0; dz < CellBlock.SIZE; dz++) {
+                for (int dx = 0; dx < CellBlock.SIZE; dx++, i++) {
+                    blocks.store(indexOf(dx, dz), block.cells[i]);
+                }
+            }
+        }
+
+        // loads the chunk's cells into the block, the inverse of write
+        public void read(CellBlock block) {
+            flush();
+            for (int dz = 0, i = 0; dz < CellBlock.SIZE; dz++) {
+                for (int dx = 0; dx < CellBlock.SIZE; dx++, i++) {
+                    blocks.load(indexOf(dx, dz), block.cells[i]);
+                }
+            }
+        }
+
+        private int indexOf(int blockX, int blockZ) {
+            int relX = regionBlockX + (blockX & 15);
+            int relZ = regionBlockZ + (blockZ & 15);
+            return blockSize.indexOf(relX, relZ);
+        }
+    }
+
+    // a read-only view of a chunk. each reader has its own cursor so that multiple readers can
+    // access the same chunk concurrently. the returned cell is only valid until the next getCell call
+    private class ChunkView implements ChunkReader {
+
+        private final GenChunk chunk;
+        private final Cell cursor = new Cell();
+
+        private ChunkView(GenChunk chunk) {
+            this.chunk = chunk;
         }
 
         @Override
         public void close() {
-            active.decrementAndGet();
+            if (active.decrementAndGet() == CLOSING) {
+                release();
+            }
         }
 
         @Override
@@ -384,38 +519,27 @@ public class Tile implements Disposable, SafeCloseable {
 
         @Override
         public int getChunkX() {
-            return chunkX;
+            return chunk.getChunkX();
         }
 
         @Override
         public int getChunkZ() {
-            return chunkZ;
+            return chunk.getChunkZ();
         }
 
         @Override
         public int getBlockX() {
-            return blockX;
+            return chunk.getBlockX();
         }
 
         @Override
         public int getBlockZ() {
-            return blockZ;
+            return chunk.getBlockZ();
         }
 
         @Override
         public Cell getCell(int blockX, int blockZ) {
-            int relX = regionBlockX + (blockX & 15);
-            int relZ = regionBlockZ + (blockZ & 15);
-            int index = blockSize.indexOf(relX, relZ);
-            return blocks[index];
-        }
-
-        @Override
-        public Cell genCell(int blockX, int blockZ) {
-            int relX = regionBlockX + (blockX & 15);
-            int relZ = regionBlockZ + (blockZ & 15);
-            int index = blockSize.indexOf(relX, relZ);
-            return computeCell(index);
+            return blocks.load(chunk.indexOf(blockX, blockZ), cursor);
         }
     }
 
@@ -427,7 +551,7 @@ public class Tile implements Disposable, SafeCloseable {
         }
 
         @Override
-        public Cell[] getBacking() {
+        public CellBuffer getBacking() {
             return blocks;
         }
 
@@ -437,7 +561,22 @@ public class Tile implements Disposable, SafeCloseable {
             if (index < 0 || index >= blockSize.arraySize) {
                 return Cell.empty();
             }
-            return blocks[index];
+            return blocks.load(index, new Cell());
+        }
+
+        @Override
+        public boolean isWorldAligned() {
+            return worldAligned;
+        }
+
+        @Override
+        public int getBlockX() {
+            return blockX - blockSize.border;
+        }
+
+        @Override
+        public int getBlockZ() {
+            return blockZ - blockSize.border;
         }
     }
 
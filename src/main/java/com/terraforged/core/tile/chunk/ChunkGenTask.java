@@ -25,10 +25,10 @@
 
 package com.terraforged.core.tile.chunk;
 
-import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
+import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.batch.BatchTask;
 import com.terraforged.world.heightmap.Heightmap;
-import com.terraforged.world.rivermap.Rivermap;
 
 public class ChunkGenTask implements BatchTask {
 
@@ -57,23 +57,10 @@ public class ChunkGenTask implements BatchTask {
     }
 
     protected void driveOne(ChunkWriter chunk, Heightmap heightmap) {
-        Rivermap rivers = null;
-        for (int dz = 0; dz < 16; dz++) {
-            for (int dx = 0; dx < 16; dx++) {
-                Cell cell = chunk.genCell(dx, dz);
-                float x = chunk.getBlockX() + dx;
-                float z = chunk.getBlockZ() + dz;
-
-                // apply continental noise & initial landmass
-                heightmap.applyBase(cell, x, z);
-
-                // apply river map for continent at cell's position
-                rivers = Rivermap.get(cell, rivers, heightmap);
-                heightmap.applyRivers(cell, x, z, rivers);
-
-                // apply climate noise
-                heightmap.applyClimate(cell, x, z);
-            }
+        try (Resource<CellBlock> block = CellBlock.pooled()) {
+            // apply continental noise & initial landmass, river map & climate noise to the whole chunk
+            heightmap.applyBlock(block.get().init(chunk.getBlockX(), chunk.getBlockZ()));
+            chunk.write(block.get());
         }
     }
 
@@ -92,23 +79,9 @@ public class ChunkGenTask implements BatchTask {
 
         @Override
         protected void driveOne(ChunkWriter chunk, Heightmap heightmap) {
-            Rivermap rivers = null;
-            for (int dz = 0; dz < 16; dz++) {
-                for (int dx = 0; dx < 16; dx++) {
-                    Cell cell = chunk.genCell(dx, dz);
-                    float x = ((chunk.getBlockX() + dx) * zoom) + translateX;
-                    float z = ((chunk.getBlockZ() + dz) * zoom) + translateZ;
-
-                    // apply continental noise & initial landmass
-                    heightmap.applyBase(cell, x, z);
-
-                    // apply river map for continent at cell's position
-                    rivers = Rivermap.get(cell, rivers, heightmap);
-                    heightmap.applyRivers(cell, x, z, rivers);
-
-                    // apply climate noise
-                    heightmap.applyClimate(cell, x, z);
-                }
+            try (Resource<CellBlock> block = CellBlock.pooled()) {
+                heightmap.applyBlock(block.get().init(chunk.getBlockX(), chunk.getBlockZ(), zoom, translateX, translateZ));
+                chunk.write(block.get());
             }
         }
     }
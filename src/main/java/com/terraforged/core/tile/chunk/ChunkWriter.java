@@ -26,16 +26,33 @@
 package com.terraforged.core.tile.chunk;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 
 public interface ChunkWriter extends ChunkHolder {
 
     Cell genCell(int dx, int dz);
 
+    // writes back the last cell returned by genCell
+    default void flush() {
+
+    }
+
     default void generate(Cell.Visitor visitor) {
         for (int dz = 0; dz < 16; dz++) {
             for (int dx = 0; dx < 16; dx++) {
                 visitor.visit(genCell(dx, dz), dx, dz);
             }
         }
+        flush();
+    }
+
+    // copies a generated block of cells into the chunk
+    default void write(CellBlock block) {
+        for (int dz = 0, i = 0; dz < CellBlock.SIZE; dz++) {
+            for (int dx = 0; dx < CellBlock.SIZE; dx++, i++) {
+                genCell(dx, dz).copy(block.cells[i]);
+            }
+        }
+        flush();
     }
 }
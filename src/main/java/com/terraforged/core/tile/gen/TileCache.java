@@ -25,12 +25,20 @@
 
 package com.terraforged.core.tile.gen;
 
+import com.terraforged.core.cell.CellBuffer;
 import com.terraforged.core.concurrent.Disposable;
 import com.terraforged.core.concurrent.cache.Cache;
 import com.terraforged.core.concurrent.cache.CacheEntry;
+import com.terraforged.core.concurrent.cache.CacheStats;
+import com.terraforged.core.concurrent.cache.CapacityPolicy;
 import com.terraforged.core.tile.Tile;
 import com.terraforged.core.tile.chunk.ChunkReader;
+import com.terraforged.core.util.metric.Metrics;
+import com.terraforged.world.SettingsChange;
+import com.terraforged.world.WorldGeneratorFactory;
+import com.terraforged.world.rivermap.RiverStore;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.LongFunction;
 
@@ -43,12 +51,21 @@ public class TileCache implements Disposable.Listener<Tile> {
     private final LongFunction<CacheEntry<Tile>> asyncGetter;
 
     public TileCache(boolean queueNeighbours, TileGenerator generator) {
+        this(queueNeighbours, generator, CapacityPolicy.unbounded());
+    }
+
+    public TileCache(boolean queueNeighbours, TileGenerator generator, CapacityPolicy<CacheEntry<Tile>> policy) {
         this.generator = generator;
         this.syncGetter = syncGetter();
         this.asyncGetter = asyncGetter();
         this.queuing = queueNeighbours;
-        this.cache = new Cache<>(60, 30, TimeUnit.SECONDS);
+        this.cache = new Cache<>(200, 60, 30, TimeUnit.SECONDS, policy);
         generator.setListener(this);
+        Metrics.register(Metrics.instanceName("tile_cache"), cache);
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
     }
 
     @Override
@@ -56,6 +73,60 @@ public class TileCache implements Disposable.Listener<Tile> {
         cache.remove(tile.getRegionId());
     }
 
+    public void update(WorldGeneratorFactory factory, SettingsChange change) {
+        update(factory, change, null, null);
+    }
+
+    // switches the cache over to a generator built from new settings. cached tiles are kept where the change only
+    // affects the filter stages & the tile holds a snapshot of its unfiltered heights (see
+    // TileGenerator.Builder#snapshots): a copy of the tile is restored from the snapshot & re-filtered on the
+    // generator's thread pool, then replaces the cached tile so that readers of the old one are unaffected. any
+    // other tile (including those still generating with the previous settings) is removed & regenerated on next
+    // request, as are all tiles if an earlier stage changed. that includes the climate stage, which marks coast &
+    // ocean terrain that the height-only snapshot can't undo
+    public void update(WorldGeneratorFactory factory, SettingsChange change, TileStore store, RiverStore rivers) {
+        generator.update(factory, store, rivers);
+        if (change.isEmpty()) {
+            return;
+        }
+
+        if (change.affects(SettingsChange.Stage.HEIGHTMAP)
+                || change.affects(SettingsChange.Stage.RIVERS)
+                || change.affects(SettingsChange.Stage.CLIMATE)) {
+            cache.clear();
+            return;
+        }
+
+        TileGenerator.Pipeline pipeline = generator.pipeline;
+        cache.forEach((key, entry) -> {
+            Tile tile = entry.peek();
+            if (tile == null || tile.getSnapshot() == null || !entry.retain()) {
+                cache.remove(key, entry);
+                return;
+            }
+            // the old tile stays pinned & readable until its updated copy replaces it
+            generator.threadPool.submit(() -> updateTile(key, entry, tile, pipeline));
+        });
+    }
+
+    private void updateTile(long key, CacheEntry<Tile> entry, Tile tile, TileGenerator.Pipeline pipeline) {
+        Tile copy = generator.createEmptyRegion(tile.getRegionX(), tile.getRegionZ());
+        try {
+            tile.copyTo(copy);
+        } finally {
+            entry.release();
+        }
+
+        generator.postProcess(copy, true, pipeline);
+
+        if (cache.replace(key, entry, CacheEntry.supply(CompletableFuture.completedFuture(copy)))) {
+            generator.save(copy, pipeline);
+        } else {
+            // removed or replaced while updating
+            copy.close();
+        }
+    }
+
     public int chunkToRegion(int coord) {
         return generator.chunkToRegion(coord);
     }
@@ -99,6 +170,29 @@ public class TileCache implements Disposable.Listener<Tile> {
         return id -> generator.getAsync((int) id, (int) (id >> 32));
     }
 
+    public static CapacityPolicy<CacheEntry<Tile>> maxTiles(int count) {
+        return CapacityPolicy.entries(count, TileCache::canEvict);
+    }
+
+    public static CapacityPolicy<CacheEntry<Tile>> maxBytes(long bytes) {
+        return CapacityPolicy.weight(bytes, TileCache::weigh, TileCache::canEvict);
+    }
+
+    // tiles that are still generating or have chunks open for reading must not be evicted
+    private static boolean canEvict(CacheEntry<Tile> entry) {
+        Tile tile = entry.peek();
+        return tile != null && !tile.isActive();
+    }
+
+    // tiles still generating have no weight until complete
+    private static long weigh(CacheEntry<Tile> entry) {
+        Tile tile = entry.peek();
+        if (tile == null) {
+            return 0L;
+        }
+        return (long) tile.getBlockCount() * CellBuffer.BYTES_PER_CELL;
+    }
+
     private void queueNeighbours(int rx, int rz) {
         for (int dz = -1; dz <= 1; dz++) {
             for (int dx = 0; dx <= 1; dx++) {
@@ -0,0 +1,62 @@
+package com.terraforged.core.tile.gen;
+
+import com.terraforged.core.cell.CellCodec;
+import com.terraforged.core.tile.Tile;
+import com.terraforged.world.terrain.Terrains;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// compact, lossy encoding of a whole tile for shipping pre-generated regions between processes or to disk.
+// see CellCodec for the format & error bounds of the cell data
+public class TileCodec {
+
+    private static final int MAGIC = 0x54465443; // TFTC
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+
+    public static byte[] encode(Tile tile) {
+        byte[] cells = CellCodec.encode(tile.filterable().getBacking(), tile.getBlockSize().total, tile.getBlockSize().arraySize);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + cells.length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(tile.getRegionId());
+        buffer.putInt(tile.getBlockSize().arraySize);
+        buffer.put(cells);
+        return buffer.array();
+    }
+
+    // the tile must be an empty tile for the same region & size as the encoded one
+    public static void decode(byte[] data, Tile tile, Terrains terrains) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not an encoded tile");
+        }
+
+        long regionId = buffer.getLong();
+        if (regionId != tile.getRegionId()) {
+            throw new IOException("Encoded region " + regionId + " does not match tile region " + tile.getRegionId());
+        }
+
+        int arraySize = buffer.getInt();
+        if (arraySize != tile.getBlockSize().arraySize) {
+            throw new IOException("Encoded size " + arraySize + " does not match tile size " + tile.getBlockSize().arraySize);
+        }
+
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+
+        IOException[] error = {null};
+        tile.load(cells -> {
+            try {
+                CellCodec.decode(encoded, cells, terrains::getTerrain);
+            } catch (IOException e) {
+                error[0] = e;
+            }
+        });
+
+        if (error[0] != null) {
+            throw error[0];
+        }
+    }
+}
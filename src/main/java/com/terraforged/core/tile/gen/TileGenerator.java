@@ -25,21 +25,30 @@
 
 package com.terraforged.core.tile.gen;
 
+import com.terraforged.core.cell.CellArena;
 import com.terraforged.core.concurrent.Disposable;
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.batch.Batcher;
 import com.terraforged.core.concurrent.cache.CacheEntry;
+import com.terraforged.core.concurrent.cache.CapacityPolicy;
 import com.terraforged.core.concurrent.thread.ThreadPool;
+import com.terraforged.core.tile.Size;
 import com.terraforged.core.tile.Tile;
 import com.terraforged.world.WorldGenerator;
 import com.terraforged.world.WorldGeneratorFactory;
+import com.terraforged.world.rivermap.RiverCache;
+import com.terraforged.world.rivermap.RiverStore;
 
 public class TileGenerator {
 
     protected final int factor;
     protected final int border;
     protected final int batchSize;
+    protected final boolean snapshots;
     protected final ThreadPool threadPool;
-    protected final WorldGenerator generator;
-    private final TileResources resources = new TileResources();
+    // swapped as a whole on update so that a tile is generated, filtered & saved with one set of settings
+    protected volatile Pipeline pipeline;
+    private final TileResources resources;
 
     private Disposable.Listener<Tile> listener = r -> {
     };
@@ -48,14 +57,31 @@ public class TileGenerator {
         this.factor = builder.factor;
         this.border = builder.border;
         this.batchSize = builder.batchSize;
+        this.snapshots = builder.snapshots;
         this.threadPool = builder.threadPool;
-        this.generator = builder.factory.get();
+        this.pipeline = new Pipeline(builder.factory.get(), builder.store);
+        this.resources = createResources(builder);
+        pipeline.generator.getHeightmap().getRivers().setStore(builder.riverStore);
     }
 
     protected void setListener(Disposable.Listener<Tile> listener) {
         this.listener = listener;
     }
 
+    // swaps in a generator built from new settings. tiles & rivermaps are persisted to the given stores from then
+    // on, which should be keyed on the new settings (or null). the tile size can't change, so settings that need a
+    // wider border than the generator was built with (see Builder#build) are rejected
+    protected void update(WorldGeneratorFactory factory, TileStore store, RiverStore riverStore) {
+        int required = factory.getFilters().getBorderChunks();
+        if (required > border) {
+            throw new IllegalArgumentException("The new settings need a tile border of " + required
+                    + " chunks but the generator's border is " + border);
+        }
+        WorldGenerator generator = factory.get();
+        generator.getHeightmap().getRivers().setStore(riverStore);
+        this.pipeline = new Pipeline(generator, store);
+    }
+
     public int chunkToRegion(int i) {
         return i >> factor;
     }
@@ -68,6 +94,10 @@ public class TileGenerator {
         return new TileCache(queueNeighbours, this);
     }
 
+    public TileCache toCache(boolean queueNeighbours, CapacityPolicy<CacheEntry<Tile>> policy) {
+        return new TileCache(queueNeighbours, this, policy);
+    }
+
     public CacheEntry<Tile> getSync(int regionX, int regionZ) {
         return CacheEntry.supply(new CallableTile(regionX, regionZ, this));
     }
@@ -76,25 +106,51 @@ public class TileGenerator {
         return CacheEntry.supply(new CallableZoomTile(regionX, regionZ, zoom, filter, this));
     }
 
+    // the rivers for the tile's area are queued ahead of the tile itself
     public CacheEntry<Tile> getAsync(int regionX, int regionZ) {
+        int minX = Size.chunkToBlock(regionX << factor);
+        int minZ = Size.chunkToBlock(regionZ << factor);
+        int size = Size.chunkToBlock(1 << factor);
+        pipeline.generator.getHeightmap().getRivers().prefetch(minX, minZ, minX + size, minZ + size);
         return CacheEntry.supplyAsync(new CallableTile(regionX, regionZ, this), threadPool);
     }
 
     public CacheEntry<Tile> getAsync(float centerX, float centerZ, float zoom, boolean filter) {
+        float extent = Size.chunkToBlock(1 << factor) * zoom * 0.5F;
+        RiverCache rivers = pipeline.generator.getHeightmap().getRivers();
+        rivers.prefetch(centerX - extent, centerZ - extent, centerX + extent, centerZ + extent);
         return CacheEntry.supplyAsync(new CallableZoomTile(centerX, centerZ, zoom, filter, this), threadPool);
     }
 
+    // re-runs the filters on a copy of a tile from this generator, eg to toggle the optional filters on a zoomed
+    // tile, so that the tile itself can still be read while the copy is filtered. requires snapshots to be enabled,
+    // otherwise the filters are applied on top of the already filtered heights
+    public CacheEntry<Tile> refilter(Tile tile, boolean filter) {
+        return CacheEntry.supplyAsync(() -> {
+            Tile copy = createEmptyRegion(tile.getRegionX(), tile.getRegionZ());
+            tile.copyTo(copy);
+            postProcess(copy, filter, pipeline);
+            return copy;
+        }, threadPool);
+    }
+
     public Tile generateRegion(int regionX, int regionZ) {
+        Pipeline pipeline = this.pipeline;
         Tile tile = createEmptyRegion(regionX, regionZ);
-        tile.generate(generator.getHeightmap());
-        postProcess(tile);
+        if (load(tile, pipeline)) {
+            return tile;
+        }
+        tile.generate(pipeline.generator.getHeightmap());
+        postProcess(tile, true, pipeline);
+        save(tile, pipeline);
         return tile;
     }
 
     public Tile generateRegion(float centerX, float centerZ, float zoom, boolean filter) {
+        Pipeline pipeline = this.pipeline;
         Tile tile = createEmptyRegion(0, 0);
-        tile.generate(generator.getHeightmap(), centerX, centerZ, zoom);
-        postProcess(tile, filter);
+        tile.generate(pipeline.generator.getHeightmap(), centerX, centerZ, zoom);
+        postProcess(tile, filter, pipeline);
         return tile;
     }
 
@@ -102,12 +158,43 @@ public class TileGenerator {
         return new Tile(regionX, regionZ, factor, border, resources, listener);
     }
 
-    protected void postProcess(Tile tile) {
-        generator.getFilters().apply(tile, true);
+    protected boolean load(Tile tile, Pipeline pipeline) {
+        return pipeline.store != null && pipeline.store.load(tile);
     }
 
-    protected void postProcess(Tile tile, boolean filter) {
-        generator.getFilters().apply(tile, filter);
+    protected void save(Tile tile, Pipeline pipeline) {
+        if (pipeline.store != null) {
+            pipeline.store.save(tile);
+        }
+    }
+
+    protected void postProcess(Tile tile, boolean filter, Pipeline pipeline) {
+        if (snapshots && tile.getSnapshot() == null) {
+            tile.snapshot();
+        }
+        try (Resource<Batcher> batcher = threadPool.batcher()) {
+            pipeline.generator.getFilters().apply(tile, filter, batcher.get());
+        }
+    }
+
+    private static TileResources createResources(Builder builder) {
+        if (builder.offHeapBytes <= 0) {
+            return new TileResources();
+        }
+        int cells = Size.blocks(builder.factor, builder.border).arraySize;
+        return new TileResources(new CellArena(cells, builder.offHeapBytes));
+    }
+
+    // the generator & store for one set of settings
+    protected static class Pipeline {
+
+        protected final WorldGenerator generator;
+        protected final TileStore store;
+
+        private Pipeline(WorldGenerator generator, TileStore store) {
+            this.generator = generator;
+            this.store = store;
+        }
     }
 
     public static Builder builder() {
@@ -119,6 +206,10 @@ public class TileGenerator {
         private int factor = 0;
         private int border = 0;
         private int batchSize = 0;
+        private long offHeapBytes = 0L;
+        private boolean snapshots = false;
+        private TileStore store;
+        private RiverStore riverStore;
         private ThreadPool threadPool;
         private WorldGeneratorFactory factory;
 
@@ -151,7 +242,35 @@ public class TileGenerator {
             return this;
         }
 
+        // stores tile cell data in direct memory, up to the given number of bytes
+        public Builder offHeap(long maxResidentBytes) {
+            this.offHeapBytes = maxResidentBytes;
+            return this;
+        }
+
+        // keeps each tile's unfiltered heights (one float per cell) so its filters can be re-run without
+        // regenerating it
+        public Builder snapshots(boolean snapshots) {
+            this.snapshots = snapshots;
+            return this;
+        }
+
+        // persists generated tiles & serves them from disk on subsequent requests
+        public Builder store(TileStore store) {
+            this.store = store;
+            return this;
+        }
+
+        // persists generated rivermaps & serves them from disk on subsequent requests. the store should be keyed
+        // on RiverStore.hash(settings)
+        public Builder rivers(RiverStore riverStore) {
+            this.riverStore = riverStore;
+            return this;
+        }
+
+        // the border is widened to fit the filters if needed, eg for world-space erosion to line up across tiles
         public TileGenerator build() {
+            border = Math.max(border, factory.getFilters().getBorderChunks());
             if (threadPool.supportsBatching() && batchSize > 1) {
                 return new TileGeneratorBatched(this);
             }
@@ -12,21 +12,27 @@ public class TileGeneratorBatched extends TileGenerator {
 
     @Override
     public Tile generateRegion(int regionX, int regionZ) {
+        Pipeline pipeline = this.pipeline;
         Tile tile = createEmptyRegion(regionX, regionZ);
+        if (load(tile, pipeline)) {
+            return tile;
+        }
         try (Resource<Batcher> batcher = threadPool.batcher()) {
-            tile.generateArea(generator.getHeightmap(), batcher.get(), batchSize);
+            tile.generateArea(pipeline.generator.getHeightmap(), batcher.get(), batchSize);
         }
-        postProcess(tile);
+        postProcess(tile, true, pipeline);
+        save(tile, pipeline);
         return tile;
     }
 
     @Override
     public Tile generateRegion(float centerX, float centerZ, float zoom, boolean filter) {
+        Pipeline pipeline = this.pipeline;
         Tile tile = createEmptyRegion(0, 0);
         try (Resource<Batcher> batcher = threadPool.batcher()) {
-            tile.generateArea(generator.getHeightmap(), batcher.get(), batchSize, centerX, centerZ, zoom);
+            tile.generateArea(pipeline.generator.getHeightmap(), batcher.get(), batchSize, centerX, centerZ, zoom);
         }
-        postProcess(tile, filter);
+        postProcess(tile, filter, pipeline);
         return tile;
     }
 }
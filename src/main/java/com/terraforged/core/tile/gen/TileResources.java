@@ -1,11 +1,43 @@
 package com.terraforged.core.tile.gen;
 
-import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellArena;
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.concurrent.pool.ArrayPool;
+import com.terraforged.core.concurrent.pool.BufferPool;
+import com.terraforged.core.concurrent.pool.FloatArrayPool;
 import com.terraforged.core.tile.Tile;
+import com.terraforged.core.util.metric.Metrics;
 
 public class TileResources {
 
-    public final ArrayPool<Cell> blocks = ArrayPool.of(100, Cell[]::new);
+    public final BufferPool<CellBuffer> blocks = new BufferPool<>(100, CellBuffer::heap, CellBuffer::capacity);
     public final ArrayPool<Tile.GenChunk> chunks = ArrayPool.of(100, Tile.GenChunk[]::new);
+    public final FloatArrayPool snapshots = new FloatArrayPool(100);
+
+    // optional off-heap storage for cell data. null when disabled
+    private final CellArena arena;
+
+    public TileResources() {
+        this(null);
+    }
+
+    public TileResources(CellArena arena) {
+        this.arena = arena;
+        String name = Metrics.instanceName("tile_resources");
+        Metrics.register(name + ".blocks", blocks);
+        Metrics.register(name + ".chunks", chunks);
+        Metrics.register(name + ".snapshots", snapshots);
+    }
+
+    public Resource<CellBuffer> getBlocks(int size) {
+        if (arena != null) {
+            Resource<CellBuffer> page = arena.get(size);
+            if (page != null) {
+                return page;
+            }
+        }
+        // fall back to the heap once the arena is full
+        return blocks.get(size);
+    }
 }
@@ -0,0 +1,247 @@
+package com.terraforged.core.tile.gen;
+
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.thread.ThreadPool;
+import com.terraforged.core.concurrent.thread.ThreadPools;
+import com.terraforged.core.settings.Settings;
+import com.terraforged.core.settings.WorldSettings;
+import com.terraforged.core.serialization.serializer.Serializer;
+import com.terraforged.core.serialization.serializer.Writer;
+import com.terraforged.core.tile.Tile;
+import com.terraforged.world.terrain.Terrain;
+import com.terraforged.world.terrain.Terrains;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// persists finished (post-filtered) tiles to disk so they can be memory-mapped back in instead of regenerated.
+// tiles are stored one per file under a directory named after the hash of the settings (including the world seed)
+// that generated them, so changing the seed or settings never serves stale tiles
+public class TileStore {
+
+    private static final int MAGIC = 0x54465453; // TFTS
+    private static final int VERSION = 1;
+
+    private final Path dir;
+    private final long settingsHash;
+    private final Terrains terrains;
+    private final ThreadPool threadPool = ThreadPools.getUtilPool();
+
+    public TileStore(Path root, long settingsHash, Terrains terrains) {
+        this.dir = root.resolve(Long.toHexString(settingsHash));
+        this.settingsHash = settingsHash;
+        this.terrains = terrains;
+    }
+
+    public long getSettingsHash() {
+        return settingsHash;
+    }
+
+    public boolean load(Tile tile) {
+        Path file = getPath(tile.getRegionX(), tile.getRegionZ());
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!readHeader(buffer, tile)) {
+                return false;
+            }
+
+            Terrain[] palette = readPalette(buffer);
+            int size = tile.getBlockSize().arraySize;
+            tile.load(cells -> {
+                cells.setPalette(palette);
+                cells.readColumns(buffer, size);
+            });
+            return true;
+        } catch (Throwable t) {
+            // corrupt/truncated files are regenerated (and overwritten)
+            t.printStackTrace();
+            return false;
+        }
+    }
+
+    public void save(Tile tile) {
+        // encode on the calling thread as the tile's resources may be recycled once it leaves the cache
+        int size = tile.getBlockSize().arraySize;
+        CellBuffer cells = tile.filterable().getBacking();
+        Terrain[] palette = cells.getPalette();
+        ByteBuffer buffer = ByteBuffer.allocate(getHeaderSize(palette) + size * CellBuffer.BYTES_PER_CELL);
+        writeHeader(buffer, tile);
+        writePalette(buffer, palette);
+        cells.writeColumns(buffer, size);
+        buffer.flip();
+
+        Path file = getPath(tile.getRegionX(), tile.getRegionZ());
+        threadPool.submit(() -> write(file, buffer));
+    }
+
+    private Path getPath(int regionX, int regionZ) {
+        return dir.resolve(regionX + "." + regionZ + ".tile");
+    }
+
+    private boolean readHeader(ByteBuffer buffer, Tile tile) {
+        return buffer.getInt() == MAGIC
+                && buffer.getInt() == VERSION
+                && buffer.getLong() == settingsHash
+                && buffer.getLong() == tile.getRegionId()
+                && buffer.getInt() == tile.getBlockSize().arraySize;
+    }
+
+    private void writeHeader(ByteBuffer buffer, Tile tile) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(settingsHash);
+        buffer.putLong(tile.getRegionId());
+        buffer.putInt(tile.getBlockSize().arraySize);
+    }
+
+    private Terrain[] readPalette(ByteBuffer buffer) {
+        Terrain[] palette = new Terrain[buffer.getShort() & 0xFFFF];
+        for (int i = 0; i < palette.length; i++) {
+            byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            palette[i] = terrains.getTerrain(new String(name, StandardCharsets.UTF_8));
+        }
+        return palette;
+    }
+
+    private void writePalette(ByteBuffer buffer, Terrain[] palette) {
+        buffer.putShort((short) palette.length);
+        for (Terrain terrain : palette) {
+            byte[] name = terrain.getName().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+    }
+
+    private int getHeaderSize(Terrain[] palette) {
+        int size = 4 + 4 + 8 + 8 + 4 + 2;
+        for (Terrain terrain : palette) {
+            size += 2 + terrain.getName().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+
+    // writes the buffer to a temp file & moves it into place. each write has its own temp file so that concurrent
+    // saves of the same file can't interleave, the last move wins
+    public static void write(Path file, ByteBuffer buffer) {
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            // readers only ever see complete files
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            delete(temp);
+        }
+    }
+
+    private static void delete(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // a stable hash of all serializable settings values. the world seed is transient so isn't serialized, but it
+    // changes everything that is generated so is hashed explicitly when given the settings containing it
+    public static long hash(Object settings) {
+        HashWriter writer = new HashWriter();
+        try {
+            Serializer.serialize(settings, writer, false);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        if (settings instanceof Settings) {
+            writer.update(((Settings) settings).world.seed);
+        } else if (settings instanceof WorldSettings) {
+            writer.update(((WorldSettings) settings).seed);
+        }
+        return writer.hash;
+    }
+
+    // 64bit FNV-1a over the serialized names & values
+    private static class HashWriter implements Writer {
+
+        private long hash = 0xcbf29ce484222325L;
+
+        private HashWriter update(int value) {
+            for (int i = 0; i < 4; i++) {
+                hash ^= (value >>> (i << 3)) & 0xFF;
+                hash *= 0x100000001b3L;
+            }
+            return this;
+        }
+
+        private HashWriter update(long value) {
+            return update((int) value).update((int) (value >>> 32));
+        }
+
+        private HashWriter update(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                update(value.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Writer name(String name) {
+            return update(name);
+        }
+
+        @Override
+        public Writer beginObject() {
+            return update('{');
+        }
+
+        @Override
+        public Writer endObject() {
+            return update('}');
+        }
+
+        @Override
+        public Writer beginArray() {
+            return update('[');
+        }
+
+        @Override
+        public Writer endArray() {
+            return update(']');
+        }
+
+        @Override
+        public Writer value(String value) {
+            return update(value);
+        }
+
+        @Override
+        public Writer value(float value) {
+            return update(Float.floatToIntBits(value));
+        }
+
+        @Override
+        public Writer value(int value) {
+            return update(value);
+        }
+    }
+}
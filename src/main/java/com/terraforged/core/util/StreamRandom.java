@@ -0,0 +1,97 @@
+package com.terraforged.core.util;
+
+import com.terraforged.core.concurrent.thread.context.ContextualThread;
+
+import java.util.Random;
+
+// a SplitMix64 generator. unlike java.util.Random the state is a plain field rather than an AtomicLong so there is
+// no synchronization per value, which means an instance must not be shared between threads. sub-streams derived
+// from a seed & a key (eg a region or partition index) are independent of each other, so work that is split across
+// threads can give each piece its own stream & stay reproducible regardless of which thread runs it.
+// it extends Random so that it can be passed to existing Random based apis (eg the river generator's variances,
+// Collections.shuffle & ThreadContext.random's users). Random's constructor still allocates its (unused) AtomicLong,
+// once per instance, so hot paths should re-seed the per-thread instance from get() rather than create new ones
+public class StreamRandom extends Random {
+
+    private static final long serialVersionUID = 6349213057716436823L;
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+    private static final ThreadLocal<StreamRandom> LOCAL = ThreadLocal.withInitial(StreamRandom::new);
+
+    private long state;
+
+    public StreamRandom() {
+        this(0L);
+    }
+
+    public StreamRandom(long seed) {
+        // Random's constructor calls setSeed
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    // re-seeds this generator to the sub-stream of the seed identified by the key
+    public StreamRandom seed(long seed, long key) {
+        state = stream(seed, key);
+        return this;
+    }
+
+    // a new generator for the sub-stream of this generator's current state identified by the key
+    public StreamRandom split(long key) {
+        return new StreamRandom(stream(state, key));
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(state += GAMMA);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24F;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0L;
+    }
+
+    // the generator owned by the current thread. it's shared by everything running on that thread so it must be
+    // re-seeded before use & not held across calls into other code that may also use it
+    public static StreamRandom get() {
+        // prefer the generator held by ContextualThreads
+        Thread current = Thread.currentThread();
+        if (current instanceof ContextualThread) {
+            return ((ContextualThread) current).getContext().random;
+        }
+        return LOCAL.get();
+    }
+
+    public static long stream(long seed, long key) {
+        return mix(seed ^ mix(key + GAMMA));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
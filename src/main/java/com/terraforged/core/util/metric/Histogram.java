@@ -0,0 +1,96 @@
+package com.terraforged.core.util.metric;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// a lock-free histogram of nanosecond latencies using power-of-two buckets, so percentiles are reported as the
+// upper bound of the bucket they fall in (ie to within a factor of 2)
+public class Histogram {
+
+    // bucket i holds values from 2^i to 2^(i+1) - 1
+    private static final int BUCKETS = 63;
+
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        buckets[Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+        total.add(nanos);
+
+        long current;
+        while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {}
+    }
+
+    public long count() {
+        long count = 0L;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public long mean() {
+        long count = count();
+        return count == 0 ? 0 : total.sum() / count;
+    }
+
+    // the upper bound (in nanos) of the bucket containing the given percentile (0-1)
+    public long percentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target && seen > 0) {
+                return (1L << (i + 1)) - 1;
+            }
+        }
+        return 0L;
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        total.reset();
+        max.set(0L);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "count: %d, mean: %.3fms, p50: <%.3fms, p99: <%.3fms, max: %.3fms",
+                count(),
+                millis(mean()),
+                millis(percentile(0.5)),
+                millis(percentile(0.99)),
+                millis(max())
+        );
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.terraforged.core.util.metric;
+
+// the default recorder - keeps a latency histogram per stage
+public class HistogramRecorder implements MetricsRecorder, MetricSource {
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final Histogram[] histograms = new Histogram[STAGES.length];
+
+    public HistogramRecorder() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
+    }
+
+    public Histogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    @Override
+    public void record(Stage stage, long nanos) {
+        histograms[stage.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void collect(MetricCollector collector) {
+        for (Stage stage : STAGES) {
+            Histogram histogram = getHistogram(stage);
+            String name = stage.name().toLowerCase();
+            collector.collect(name + ".count", histogram.count());
+            collector.collect(name + ".mean_ns", histogram.mean());
+            collector.collect(name + ".p50_ns", histogram.percentile(0.5));
+            collector.collect(name + ".p99_ns", histogram.percentile(0.99));
+            collector.collect(name + ".max_ns", histogram.max());
+        }
+    }
+
+    public void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+}
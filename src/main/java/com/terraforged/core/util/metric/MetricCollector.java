@@ -0,0 +1,6 @@
+package com.terraforged.core.util.metric;
+
+public interface MetricCollector {
+
+    void collect(String name, long value);
+}
@@ -0,0 +1,7 @@
+package com.terraforged.core.util.metric;
+
+// something that can report its current state (counters, sizes, queue depths etc) when polled
+public interface MetricSource {
+
+    void collect(MetricCollector collector);
+}
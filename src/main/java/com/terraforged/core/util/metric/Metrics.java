@@ -1,22 +1,86 @@
 package com.terraforged.core.util.metric;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+// entry point for instrumentation:
+// - stage latencies are timed with start()/record() & passed to the installed MetricsRecorder. when no recorder
+//   is installed start() doesn't read the clock and record() is a no-op
+// - caches, pools & thread pools register as MetricSources and are only polled when collect() is called.
+//   sources are weakly referenced so registering never keeps them alive, and registering a source under an
+//   existing name replaces the previous one. components that can have several instances register under a name
+//   from instanceName() so that each is reported separately
 public class Metrics {
 
-    public static final Metric BATCHER = new Metric();
-    public static final Metric HEIGHTMAP = new Metric();
-    public static final Metric RIVER_GEN = new Metric();
+    private static final long DISABLED = Long.MIN_VALUE;
 
+    private static final Map<String, WeakReference<MetricSource>> sources = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> instances = new ConcurrentHashMap<>();
     private static final AtomicLong timer = new AtomicLong(System.currentTimeMillis());
 
+    private static volatile MetricsRecorder recorder = MetricsRecorder.NONE;
+
+    public static boolean isEnabled() {
+        return recorder != MetricsRecorder.NONE;
+    }
+
+    public static MetricsRecorder getRecorder() {
+        return recorder;
+    }
+
+    public static void setRecorder(MetricsRecorder recorder) {
+        Metrics.recorder = recorder == null ? MetricsRecorder.NONE : recorder;
+    }
+
+    public static long start() {
+        return recorder == MetricsRecorder.NONE ? DISABLED : System.nanoTime();
+    }
+
+    public static void record(Stage stage, long start) {
+        if (start != DISABLED) {
+            recorder.record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public static void register(String name, MetricSource source) {
+        sources.put(name, new WeakReference<>(source));
+    }
+
+    // a unique name for the next instance of a component, eg: tile_cache.0, tile_cache.1
+    public static String instanceName(String name) {
+        int id = instances.computeIfAbsent(name, n -> new AtomicInteger()).getAndIncrement();
+        return name + "." + id;
+    }
+
+    public static void unregister(String name) {
+        sources.remove(name);
+    }
+
+    // polls the recorder (if it is a MetricSource) and all registered sources, prefixing values with their name
+    public static void collect(MetricCollector collector) {
+        MetricsRecorder recorder = Metrics.recorder;
+        if (recorder instanceof MetricSource) {
+            ((MetricSource) recorder).collect((name, value) -> collector.collect("stage." + name, value));
+        }
+
+        sources.forEach((prefix, reference) -> {
+            MetricSource source = reference.get();
+            if (source == null) {
+                sources.remove(prefix, reference);
+                return;
+            }
+            source.collect((name, value) -> collector.collect(prefix + "." + name, value));
+        });
+    }
+
     public static void print() {
         long now = System.currentTimeMillis();
         if (now - timer.get() > 5000L) {
             timer.set(now);
-            System.out.println("Heightmap: " + HEIGHTMAP.average());
-            System.out.println("River Gen: " + RIVER_GEN.average());
-            System.out.println("Batching:  " + BATCHER.average());
+            collect((name, value) -> System.out.println(name + ": " + value));
         }
     }
 }
@@ -0,0 +1,10 @@
+package com.terraforged.core.util.metric;
+
+// receives the latency of each instrumented stage. implementations are called concurrently from the generator
+// threads so must not block
+public interface MetricsRecorder {
+
+    MetricsRecorder NONE = (stage, nanos) -> {};
+
+    void record(Stage stage, long nanos);
+}
@@ -0,0 +1,13 @@
+package com.terraforged.core.util.metric;
+
+// the generation stages (heightmap, rivers & climate) are timed once per chunk, the filters once per tile
+public enum Stage {
+    HEIGHTMAP,
+    RIVERS,
+    CLIMATE,
+    EROSION,
+    SMOOTHING,
+    STEEPNESS,
+    BEACH_DETECT,
+    STEEPNESS_BEACH_DETECT,
+}
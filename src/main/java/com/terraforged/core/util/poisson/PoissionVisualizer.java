@@ -5,7 +5,6 @@ import com.terraforged.n2d.Source;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Random;
 
 public class PoissionVisualizer {
 
@@ -18,7 +17,7 @@ public class PoissionVisualizer {
 
         BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
         Poisson poisson = new Poisson(radius);
-        PoissonContext context = new PoissonContext(213, new Random());
+        PoissonContext context = new PoissonContext(213);
         context.density = Source.simplex(213, 200, 2).clamp(0.25, 0.75).map(0, 1);
 
         long time = 0L;
@@ -1,5 +1,6 @@
 package com.terraforged.core.util.poisson;
 
+import com.terraforged.core.util.StreamRandom;
 import com.terraforged.n2d.Module;
 import com.terraforged.n2d.Source;
 
@@ -18,6 +19,10 @@ public class PoissonContext {
     public final int seed;
     public final Random random;
 
+    public PoissonContext(long seed) {
+        this(seed, new StreamRandom());
+    }
+
     public PoissonContext(long seed, Random random) {
         this.seed = (int) seed;
         this.random = random;
@@ -79,6 +79,18 @@ public class GeneratorContext {
         return new GeneratorContext(this);
     }
 
+    // a context for new settings that carries over this context's tile cache, updating the cached tiles to the new
+    // settings by re-running only the generation stages affected by the change
+    public GeneratorContext withSettings(Terrains terrain, Settings settings) {
+        SettingsChange change = SettingsChange.of(this.settings, settings);
+        return new GeneratorContext(terrain, settings, terrainFactory, factory -> {
+            if (cache != null) {
+                cache.update(factory, change);
+            }
+            return cache;
+        });
+    }
+
     public static GeneratorContext createNoCache(Terrains terrain, Settings settings) {
         return new GeneratorContext(terrain, settings, StandardTerrainProvider::new, s -> null);
     }
@@ -87,6 +99,7 @@ public class GeneratorContext {
         return TileGenerator.builder()
                 .factory(factory)
                 .size(3, 2)
+                .snapshots(true)
                 .pool(ThreadPools.createDefault())
                 .build()
                 .toCache(false);
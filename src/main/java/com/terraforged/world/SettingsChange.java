@@ -0,0 +1,67 @@
+package com.terraforged.world;
+
+import com.terraforged.core.settings.Settings;
+import com.terraforged.core.tile.gen.TileStore;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// the generation stages affected by a change from one set of settings to another. each settings group feeds into
+// one stage & everything generated after it, eg the world & terrain settings shape the base heightmap so every
+// stage must be re-run, whereas the climate settings only affect the climate stage
+public class SettingsChange {
+
+    private final Set<Stage> stages;
+
+    private SettingsChange(Set<Stage> stages) {
+        this.stages = stages;
+    }
+
+    public boolean isEmpty() {
+        return stages.isEmpty();
+    }
+
+    public boolean affects(Stage stage) {
+        return stages.contains(stage);
+    }
+
+    // true if the given stage is the only one that needs to be re-run
+    public boolean affectsOnly(Stage stage) {
+        return stages.size() == 1 && stages.contains(stage);
+    }
+
+    @Override
+    public String toString() {
+        return "SettingsChange{stages=" + stages + "}";
+    }
+
+    public static SettingsChange of(Settings previous, Settings next) {
+        Set<Stage> stages = EnumSet.noneOf(Stage.class);
+        if (changed(previous.world, next.world) || changed(previous.terrain, next.terrain)) {
+            stages.addAll(EnumSet.allOf(Stage.class));
+        }
+        if (changed(previous.rivers, next.rivers)) {
+            // rivers carve the heightmap that both climate & filters read from
+            stages.addAll(EnumSet.range(Stage.RIVERS, Stage.FILTERS));
+        }
+        if (changed(previous.climate, next.climate)) {
+            stages.add(Stage.CLIMATE);
+        }
+        if (changed(previous.filters, next.filters)) {
+            stages.add(Stage.FILTERS);
+        }
+        return new SettingsChange(stages);
+    }
+
+    private static boolean changed(Object previous, Object next) {
+        return TileStore.hash(previous) != TileStore.hash(next);
+    }
+
+    // in the order they are applied to a tile
+    public enum Stage {
+        HEIGHTMAP,
+        RIVERS,
+        CLIMATE,
+        FILTERS,
+    }
+}
@@ -25,55 +25,113 @@
 
 package com.terraforged.world;
 
+import com.terraforged.core.cell.CellBuffer;
+import com.terraforged.core.concurrent.batch.Batcher;
+import com.terraforged.core.concurrent.batch.SyncBatcher;
 import com.terraforged.core.filter.BeachDetect;
 import com.terraforged.core.filter.Erosion;
+import com.terraforged.core.filter.Filter;
+import com.terraforged.core.filter.FilterPipeline;
 import com.terraforged.core.filter.Filterable;
+import com.terraforged.core.filter.GridErosion;
 import com.terraforged.core.filter.Smoothing;
 import com.terraforged.core.filter.Steepness;
 import com.terraforged.core.settings.FilterSettings;
 import com.terraforged.core.tile.Size;
 import com.terraforged.core.tile.Tile;
+import com.terraforged.core.util.metric.Metrics;
+import com.terraforged.core.util.metric.Stage;
+import com.terraforged.world.terrain.Terrains;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.IntFunction;
 
 public class WorldFilters {
 
+    private final Terrains terrain;
     private final Smoothing smoothing;
-    private final Steepness steepness;
-    private final BeachDetect beach;
+    private final FilterPipeline surface;
     private final FilterSettings settings;
+    private final GridErosion gridErosion;
     private final IntFunction<Erosion> erosionFactory;
-    private final Object lock = new Object();
-
-    private Erosion erosion = null;
+    private final Map<Integer, Erosion> erosion = new ConcurrentHashMap<>();
 
     public WorldFilters(GeneratorContext context) {
         context = context.copy();
+        this.terrain = context.terrain;
         this.settings = context.settings.filters;
-        this.beach = new BeachDetect(context);
         this.smoothing = new Smoothing(context.settings, context.levels);
-        this.steepness = new Steepness(1, 10F, context.terrain, context.levels);
+        // steepness & beach detection only read the heights so they share a single pass over the tile
+        this.surface = new FilterPipeline(
+                new Steepness(1, 10F, context.terrain, context.levels),
+                new BeachDetect(context)
+        );
+        this.gridErosion = GridErosion.create(context);
         this.erosionFactory = Erosion.factory(context);
     }
 
+    // the tile border (in chunks) that the filters need in order to line up across tile edges, or 0 if they don't
+    public int getBorderChunks() {
+        if (settings.erosion.mode != FilterSettings.Erosion.Mode.DROPLETS || !settings.erosion.worldSpace) {
+            return 0;
+        }
+        int halo = Erosion.getHalo(settings.erosion);
+        return Size.blockToChunk(halo + 15);
+    }
+
     public void apply(Tile tile, boolean optionalFilters) {
+        apply(tile, optionalFilters, new SyncBatcher());
+    }
+
+    // filters that support it may split their work into tasks submitted to the batcher. tiles holding a snapshot
+    // are restored to their unfiltered state first, so the filters can be re-run, toggled or re-tuned on them
+    public void apply(Tile tile, boolean optionalFilters, Batcher batcher) {
         Filterable map = tile.filterable();
+        restore(tile);
 
         if (optionalFilters) {
-            getErosion(map.getSize()).apply(map, tile.getRegionX(), tile.getRegionZ(), settings.erosion.iterations);
-            smoothing.apply(map, tile.getRegionX(), tile.getRegionZ(), settings.smoothing.iterations);
+            if (settings.erosion.mode == FilterSettings.Erosion.Mode.GRID) {
+                apply(Stage.EROSION, gridErosion, tile, settings.erosion.gridSteps, batcher);
+            } else {
+                apply(Stage.EROSION, getErosion(map.getSize()), tile, settings.erosion.iterations, batcher);
+            }
+            apply(Stage.SMOOTHING, smoothing, tile, settings.smoothing.iterations, batcher);
         }
 
-        steepness.apply(map, tile.getRegionX(), tile.getRegionZ(), 1);
-        beach.apply(map, tile.getRegionX(), tile.getRegionZ(), 1);
+        apply(Stage.STEEPNESS_BEACH_DETECT, surface, tile, 1, batcher);
     }
 
-    private Erosion getErosion(Size size) {
-        synchronized (lock) {
-            if (erosion == null || erosion.getSize() != size.total) {
-                erosion = erosionFactory.apply(size.total);
+    // undoes the filters using the tile's snapshot of its heights. returns false if the tile doesn't hold one
+    public boolean restore(Tile tile) {
+        float[] snapshot = tile.getSnapshot();
+        if (snapshot == null) {
+            return false;
+        }
+
+        Size size = tile.getBlockSize();
+        CellBuffer buffer = tile.filterable().getBacking();
+        buffer.writeValues(snapshot, size.arraySize);
+        for (int i = 0; i < size.arraySize; i++) {
+            buffer.setGradient(i, 0F);
+            buffer.setErosion(i, 0F);
+            buffer.setSediment(i, 0F);
+            // beaches are only ever marked by the filters
+            if (buffer.getTerrain(i) == terrain.beach) {
+                buffer.setTerrain(i, terrain.coast);
             }
         }
-        return erosion;
+        return true;
+    }
+
+    private void apply(Stage stage, Filter filter, Tile tile, int iterations, Batcher batcher) {
+        long start = Metrics.start();
+        filter.apply(tile.filterable(), tile.getRegionX(), tile.getRegionZ(), iterations, batcher);
+        Metrics.record(stage, start);
+    }
+
+    // one instance per map size (ie zoomed & regular tiles) so that alternating between them doesn't rebuild anything
+    private Erosion getErosion(Size size) {
+        return erosion.computeIfAbsent(size.total, erosionFactory::apply);
     }
 }
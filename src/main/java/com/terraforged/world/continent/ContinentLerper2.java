@@ -26,9 +26,11 @@
 package com.terraforged.world.continent;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.cell.Populator;
 import com.terraforged.n2d.func.Interpolation;
 import com.terraforged.n2d.util.NoiseUtil;
+import com.terraforged.world.terrain.Terrain;
 
 public class ContinentLerper2 implements Populator {
 
@@ -75,4 +77,26 @@ public class ContinentLerper2 implements Populator {
 
         cell.value = NoiseUtil.lerp(lowerVal, upperVal, alpha);
     }
+
+    @Override
+    public void applyBlock(CellBlock block) {
+        float[] alpha = block.pushFloats();
+        Terrain[] lowerTypes = block.pushTerrains();
+
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            float edge = block.cells[i].continentEdge;
+            if (edge < blendLower) {
+                alpha[i] = CellBlock.LOWER;
+            } else if (edge > blendUpper) {
+                alpha[i] = CellBlock.UPPER;
+            } else {
+                alpha[i] = interpolation.apply((edge - blendLower) / blendRange);
+            }
+        }
+
+        block.blend(lower, upper, alpha, lowerTypes);
+
+        block.popTerrains();
+        block.popFloats();
+    }
 }
@@ -26,9 +26,11 @@
 package com.terraforged.world.continent;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.cell.Populator;
 import com.terraforged.n2d.func.Interpolation;
 import com.terraforged.n2d.util.NoiseUtil;
+import com.terraforged.world.terrain.Terrain;
 
 public class ContinentLerper3 implements Populator {
 
@@ -94,4 +96,41 @@ public class ContinentLerper3 implements Populator {
             cell.value = NoiseUtil.lerp(lowerVal, cell.value, alpha);
         }
     }
+
+    // blocks that fall entirely on one side of the midpoint reduce to a two-way blend, blocks spanning it are
+    // rare (only along the mid contour) so are left to the per-cell path
+    @Override
+    public void applyBlock(CellBlock block) {
+        int below = 0;
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            if (block.cells[i].continentEdge < midpoint) {
+                below++;
+            }
+        }
+
+        if (below != 0 && below != CellBlock.AREA) {
+            block.applyEach(this);
+            return;
+        }
+
+        float[] alpha = block.pushFloats();
+        Terrain[] lowerTypes = block.pushTerrains();
+
+        if (below == CellBlock.AREA) {
+            for (int i = 0; i < CellBlock.AREA; i++) {
+                float select = block.cells[i].continentEdge;
+                alpha[i] = select < blendLower ? CellBlock.LOWER : interpolation.apply((select - blendLower) / lowerRange);
+            }
+            block.blend(lower, middle, alpha, lowerTypes);
+        } else {
+            for (int i = 0; i < CellBlock.AREA; i++) {
+                float select = block.cells[i].continentEdge;
+                alpha[i] = select > blendUpper ? CellBlock.UPPER : interpolation.apply((select - midpoint) / upperRange);
+            }
+            block.blend(middle, upper, alpha, lowerTypes);
+        }
+
+        block.popTerrains();
+        block.popFloats();
+    }
 }
@@ -201,25 +201,49 @@ public abstract class ContinentGenerator implements Continent {
 
     @Override
     public float getDistanceToOcean(int cx, int cz, float dx, float dz, MutableVeci pos) {
-        float high = getDistanceToEdge(cx, cz, dx, dz, pos);
-        float low = 0;
-
-        // perform a binary search between cx,cz and the cell's edges to find the
-        // point where ocean becomes land
-        for (int i = 0; i < 50; i++) {
-            float mid = (low + high) / 2F;
-            float x = cx + dx * mid;
-            float z = cz + dz * mid;
-            float edge = getEdgeNoise(x, z);
-
-            if (edge > controlPoints.shallowOcean) {
+        // march outwards in coarse steps until the first ocean sample. the border between two continents is
+        // always ocean so this ends within about one cell spacing (plus warping) of the center
+        float step = continentScale * 0.5F;
+        float limit = 1F / frequency + continentScale;
+
+        float low = 0F;
+        float lowValue = 1F - controlPoints.shallowOcean;
+        float high = step;
+        float highValue = getOceanValue(cx, cz, dx, dz, high);
+        while (highValue > 0 && high < limit) {
+            low = high;
+            lowValue = highValue;
+            high += step;
+            highValue = getOceanValue(cx, cz, dx, dz, high);
+        }
+
+        if (highValue >= 0) {
+            return high;
+        }
+
+        // refine between the last land & first ocean sample by interpolating where the edge value crosses the
+        // shallow ocean level (false position, halving the value of an end that is kept twice in a row so
+        // that both ends converge)
+        int kept = 0;
+        for (int i = 0; i < 50 && high - low >= 10; i++) {
+            float mid = low + (high - low) * lowValue / (lowValue - highValue);
+            float value = getOceanValue(cx, cz, dx, dz, mid);
+            if (value > 0) {
                 low = mid;
-            } else {
+                lowValue = value;
+                if (kept == 1) {
+                    highValue *= 0.5F;
+                }
+                kept = 1;
+            } else if (value < 0) {
                 high = mid;
-            }
-
-            if (high - low < 10) {
-                break;
+                highValue = value;
+                if (kept == -1) {
+                    lowValue *= 0.5F;
+                }
+                kept = -1;
+            } else {
+                return mid;
             }
         }
         return high;
@@ -270,6 +294,11 @@ public abstract class ContinentGenerator implements Continent {
         return distance;
     }
 
+    // positive on land, negative in the ocean
+    private float getOceanValue(int cx, int cz, float dx, float dz, float distance) {
+        return getEdgeNoise(cx + dx * distance, cz + dz * distance) - controlPoints.shallowOcean;
+    }
+
     protected float cellIdentity(int seed, int cellX, int cellY) {
         float value = NoiseUtil.valCoord2D(seed, cellX, cellY);
         return NoiseUtil.map(value, -1, 1, 2);
@@ -27,12 +27,15 @@ package com.terraforged.world.heightmap;
 
 import com.terraforged.core.Seed;
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.cell.Populator;
 import com.terraforged.core.concurrent.Resource;
 import com.terraforged.core.module.Blender;
 import com.terraforged.core.settings.Settings;
 import com.terraforged.core.settings.TerrainSettings;
 import com.terraforged.core.settings.WorldSettings;
+import com.terraforged.core.util.metric.Metrics;
+import com.terraforged.core.util.metric.Stage;
 import com.terraforged.n2d.Module;
 import com.terraforged.n2d.Source;
 import com.terraforged.n2d.func.EdgeFunc;
@@ -43,6 +46,7 @@ import com.terraforged.world.continent.Continent;
 import com.terraforged.world.continent.ContinentLerper2;
 import com.terraforged.world.continent.ContinentLerper3;
 import com.terraforged.world.rivermap.RiverCache;
+import com.terraforged.world.rivermap.RiverCandidates;
 import com.terraforged.world.rivermap.Rivermap;
 import com.terraforged.world.terrain.Terrain;
 import com.terraforged.world.terrain.Terrains;
@@ -170,6 +174,12 @@ public class Heightmap implements Populator {
         applyClimate(cell, x, z);
     }
 
+    public void applyBlock(CellBlock block) {
+        applyBase(block);
+        applyRivers(block);
+        applyClimate(block);
+    }
+
     public void tag(Cell cell, float x, float z) {
         try (Resource<Cell> resource = Cell.pooled()) {
             continentGenerator.apply(resource.get(), x, z);
@@ -179,6 +189,8 @@ public class Heightmap implements Populator {
         }
     }
 
+    // the per cell stages aren't timed, the cost of timing them would rival the stage itself. tiles are generated
+    // with the block stages which are timed once per block (ie per chunk)
     public void applyBase(Cell cell, float x, float z) {
         // initial type
         cell.terrain = terrain.steppe;
@@ -189,6 +201,20 @@ public class Heightmap implements Populator {
         root.apply(cell, x, z);
     }
 
+    // the continent & region stages are evaluated per cell first as they select the branches that the root
+    // graph then evaluates block-wise
+    public void applyBase(CellBlock block) {
+        long start = Metrics.start();
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            Cell cell = block.cells[i];
+            cell.terrain = terrain.steppe;
+            continentGenerator.apply(cell, block.x[i], block.z[i]);
+            regionModule.apply(cell, block.x[i], block.z[i]);
+        }
+        root.applyBlock(block);
+        Metrics.record(Stage.HEIGHTMAP, start);
+    }
+
     public void applyRivers(Cell cell, float x, float z) {
         riverMap.getRivers(cell).apply(cell, x, z);
     }
@@ -197,11 +223,43 @@ public class Heightmap implements Populator {
         rivermap.apply(cell, x, z);
     }
 
+    // the rivers, wetlands & lakes that can reach the block are collected once per rivermap the block's cells
+    // belong to (usually just one), so blocks away from any of them skip the rivers stage entirely
+    public void applyRivers(CellBlock block) {
+        long start = Metrics.start();
+        float minX = Math.min(block.x[0], block.x[CellBlock.AREA - 1]);
+        float minZ = Math.min(block.z[0], block.z[CellBlock.AREA - 1]);
+        float maxX = Math.max(block.x[0], block.x[CellBlock.AREA - 1]);
+        float maxZ = Math.max(block.z[0], block.z[CellBlock.AREA - 1]);
+        try (Resource<RiverCandidates> resource = RiverCandidates.pooled()) {
+            RiverCandidates candidates = resource.get();
+            Rivermap rivermap = null;
+            for (int i = 0; i < CellBlock.AREA; i++) {
+                Cell cell = block.cells[i];
+                Rivermap next = Rivermap.get(cell, rivermap, this);
+                if (next != rivermap) {
+                    rivermap = next;
+                    rivermap.getCandidates(minX, minZ, maxX, maxZ, candidates);
+                }
+                rivermap.apply(cell, block.x[i], block.z[i], candidates);
+            }
+        }
+        Metrics.record(Stage.RIVERS, start);
+    }
+
     public void applyClimate(Cell cell, float x, float z) {
         // apply climate data
         climate.apply(cell, x, z);
     }
 
+    public void applyClimate(CellBlock block) {
+        long start = Metrics.start();
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            climate.apply(block.cells[i], block.x[i], block.z[i]);
+        }
+        Metrics.record(Stage.CLIMATE, start);
+    }
+
     public Climate getClimate() {
         return climate;
     }
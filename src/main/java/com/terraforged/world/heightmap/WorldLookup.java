@@ -59,10 +59,7 @@ public class WorldLookup {
         int rx = cache.chunkToRegion(x >> 4);
         int rz = cache.chunkToRegion(z >> 4);
         Tile tile = cache.getRegion(rx, rz);
-        Cell c = tile.getCell(x, z);
-        if (c != null) {
-            cell.copy(c);
-        }
+        tile.getCell(x, z, cell);
         return cell.terrain != null;
     }
 
@@ -71,10 +68,7 @@ public class WorldLookup {
         int rz = cache.chunkToRegion(z >> 4);
         Tile tile = cache.getIfPresent(rx, rz);
         if (tile != null) {
-            Cell c = tile.getCell(x, z);
-            if (c != null) {
-                cell.copy(c);
-            }
+            tile.getCell(x, z, cell);
             return cell.terrain != null;
         }
         return false;
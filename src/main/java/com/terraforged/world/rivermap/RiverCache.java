@@ -2,20 +2,40 @@ package com.terraforged.world.rivermap;
 
 import com.terraforged.core.cell.Cell;
 import com.terraforged.core.concurrent.cache.Cache;
+import com.terraforged.core.concurrent.cache.CacheEntry;
+import com.terraforged.core.concurrent.thread.ThreadPool;
+import com.terraforged.core.concurrent.thread.ThreadPools;
+import com.terraforged.core.util.metric.Metrics;
 import com.terraforged.n2d.util.NoiseUtil;
 import com.terraforged.world.GeneratorContext;
+import com.terraforged.world.continent.Continent;
 import com.terraforged.world.heightmap.Heightmap;
 import com.terraforged.world.rivermap.gen.RiverGenerator;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
 
+// rivermaps are generated in the background, one task per continent, so a thread that needs the rivers for one
+// continent only ever waits on that continent's rivermap (rather than on any other that happens to be generating)
 public class RiverCache {
 
+    private final Continent continent;
     private final RiverGenerator generator;
-    private final Cache<Rivermap> cache = new Cache<>(5, 1, TimeUnit.MINUTES);
+    private final ThreadPool threadPool = ThreadPools.getRiverPool();
+    private final Cache<CacheEntry<Rivermap>> cache = new Cache<>(5, 1, TimeUnit.MINUTES);
+
+    private volatile RiverStore store;
 
     public RiverCache(Heightmap heightmap, GeneratorContext context) {
+        this.continent = heightmap.getContinent();
         this.generator = new RiverGenerator(heightmap, context);
+        Metrics.register(Metrics.instanceName("river_cache"), cache);
+    }
+
+    // rivermaps are loaded from the store when present & saved to it once generated. set from the tile generator's
+    // builder (see TileGenerator.Builder.rivers) or null to disable
+    public void setStore(RiverStore store) {
+        this.store = store;
     }
 
     public Rivermap getRivers(Cell cell) {
@@ -23,6 +43,53 @@ public class RiverCache {
     }
 
     public Rivermap getRivers(int x, int z) {
-        return cache.computeIfAbsent(NoiseUtil.seed(x, z), id -> generator.compute(x, z, id));
+        return getEntry(x, z).get();
+    }
+
+    // the rivermap for the continent, which starts generating if it isn't already cached or underway
+    public CacheEntry<Rivermap> getEntry(int x, int z) {
+        long id = NoiseUtil.seed(x, z);
+        LongFunction<CacheEntry<Rivermap>> func = key -> CacheEntry.supplyAsync(() -> load(x, z, key), threadPool);
+        CacheEntry<Rivermap> entry = cache.computeIfAbsent(id, func);
+
+        // a rivermap that failed to generate/load is dropped & retried rather than the failure being cached (the
+        // entry is touched on each access so would otherwise never expire while the continent is in use)
+        if (entry.isDone() && entry.peek() == null) {
+            cache.remove(id, entry);
+            entry = cache.computeIfAbsent(id, func);
+        }
+        return entry;
+    }
+
+    // starts generating the rivermaps of the continents found at the corners & center of the area, eg for a tile
+    // that has just been queued, so that they're ready (or underway) by the time the tile reaches the rivers stage
+    public void prefetch(float minX, float minZ, float maxX, float maxZ) {
+        Cell cell = new Cell();
+        float centerX = (minX + maxX) * 0.5F;
+        float centerZ = (minZ + maxZ) * 0.5F;
+        prefetch(cell, centerX, centerZ);
+        prefetch(cell, minX, minZ);
+        prefetch(cell, maxX, minZ);
+        prefetch(cell, minX, maxZ);
+        prefetch(cell, maxX, maxZ);
+    }
+
+    private Rivermap load(int x, int z, long id) {
+        RiverStore store = this.store;
+        if (store == null) {
+            return generator.compute(x, z, id);
+        }
+
+        Rivermap rivermap = store.load(id, generator);
+        if (rivermap == null) {
+            rivermap = generator.compute(x, z, id);
+            store.save(id, rivermap);
+        }
+        return rivermap;
+    }
+
+    private void prefetch(Cell cell, float x, float z) {
+        continent.apply(cell, x, z);
+        getEntry(cell.continentX, cell.continentZ);
     }
 }
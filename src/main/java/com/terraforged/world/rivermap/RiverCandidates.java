@@ -0,0 +1,38 @@
+package com.terraforged.world.rivermap;
+
+import com.terraforged.core.concurrent.Resource;
+import com.terraforged.core.concurrent.pool.ObjectPool;
+import com.terraforged.core.util.metric.Metrics;
+
+// the features of a rivermap that may affect an area (ie a chunk), collected once so that each position within the
+// area only evaluates those. an empty set means no river, wetland or lake can reach the area
+public class RiverCandidates {
+
+    private static final ObjectPool<RiverCandidates> POOL = new ObjectPool<>(8, RiverCandidates::new);
+
+    static {
+        Metrics.register("river_candidates_pool", POOL);
+    }
+
+    int[] rivers = new int[32];
+    int[] wetlands = new int[32];
+    int[] lakes = new int[32];
+    int riverCount;
+    int wetlandCount;
+    int lakeCount;
+
+    public boolean isEmpty() {
+        return riverCount == 0 && wetlandCount == 0 && lakeCount == 0;
+    }
+
+    static int[] ensure(int[] array, int size) {
+        if (array.length < size) {
+            return new int[size];
+        }
+        return array;
+    }
+
+    public static Resource<RiverCandidates> pooled() {
+        return POOL.get();
+    }
+}
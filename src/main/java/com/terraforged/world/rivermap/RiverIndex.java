@@ -0,0 +1,202 @@
+package com.terraforged.world.rivermap;
+
+// a uniform grid over the area covered by one kind of rivermap feature (rivers, wetlands or lakes). each grid cell
+// lists the features whose area of influence overlaps it, in the order they were added. features have no effect
+// outside of their area of influence so evaluating just the listed ones, in order, gives the same result as
+// evaluating every feature. the lists are stored compressed: the entries for cell i are items[rows[i] .. rows[i + 1])
+public class RiverIndex {
+
+    private static final int SHIFT = 8;
+    private static final int CELL_SIZE = 1 << SHIFT;
+    private static final float HALF_DIAGONAL = CELL_SIZE * 0.7072F;
+
+    private final int minX;
+    private final int minZ;
+    private final int width;
+    private final int height;
+    private final int count;
+    private final float[] features;
+    private final int[] rows;
+    private final int[] items;
+
+    private RiverIndex(Builder builder) {
+        float[] features = builder.features;
+        int count = builder.count;
+        this.count = count;
+        this.features = features;
+
+        float minX = Float.MAX_VALUE;
+        float minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxZ = -Float.MAX_VALUE;
+        for (int i = 0, f = 0; i < count; i++, f += 5) {
+            float radius = features[f + 4];
+            minX = Math.min(minX, Math.min(features[f], features[f + 2]) - radius);
+            minZ = Math.min(minZ, Math.min(features[f + 1], features[f + 3]) - radius);
+            maxX = Math.max(maxX, Math.max(features[f], features[f + 2]) + radius);
+            maxZ = Math.max(maxZ, Math.max(features[f + 1], features[f + 3]) + radius);
+        }
+
+        if (count == 0) {
+            this.minX = 0;
+            this.minZ = 0;
+            this.width = 0;
+            this.height = 0;
+        } else {
+            this.minX = (int) Math.floor(minX) >> SHIFT;
+            this.minZ = (int) Math.floor(minZ) >> SHIFT;
+            this.width = ((int) Math.floor(maxX) >> SHIFT) - this.minX + 1;
+            this.height = ((int) Math.floor(maxZ) >> SHIFT) - this.minZ + 1;
+        }
+
+        // first pass counts the entries per cell, second pass fills them in
+        this.rows = new int[width * height + 1];
+        visit(features, count, null);
+        for (int i = 0, offset = 0; i < rows.length; i++) {
+            int entries = rows[i];
+            rows[i] = offset;
+            offset += entries;
+        }
+
+        this.items = new int[rows[rows.length - 1]];
+        visit(features, count, new int[rows.length]);
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // writes, in order, the features whose area of influence overlaps the given bounds into the array (which must
+    // hold at least size() entries) & returns how many were written
+    public int collect(float minX, float minZ, float maxX, float maxZ, int[] out) {
+        int written = 0;
+        for (int i = 0, f = 0; i < count; i++, f += 5) {
+            float radius = features[f + 4];
+            if (Math.min(features[f], features[f + 2]) - radius > maxX
+                    || Math.max(features[f], features[f + 2]) + radius < minX
+                    || Math.min(features[f + 1], features[f + 3]) - radius > maxZ
+                    || Math.max(features[f + 1], features[f + 3]) + radius < minZ) {
+                continue;
+            }
+            out[written++] = i;
+        }
+        return written;
+    }
+
+    // the grid cell containing the position, or -1 if no features reach it
+    public int getCell(float x, float z) {
+        int cx = ((int) Math.floor(x) >> SHIFT) - minX;
+        int cz = ((int) Math.floor(z) >> SHIFT) - minZ;
+        if (cx < 0 || cx >= width || cz < 0 || cz >= height) {
+            return -1;
+        }
+        return cz * width + cx;
+    }
+
+    public int getStart(int cell) {
+        return rows[cell];
+    }
+
+    public int getEnd(int cell) {
+        return rows[cell + 1];
+    }
+
+    public int getItem(int entry) {
+        return items[entry];
+    }
+
+    // adds each feature to the cells it overlaps. counts them into the rows when filled is null
+    private void visit(float[] features, int count, int[] filled) {
+        for (int i = 0, f = 0; i < count; i++, f += 5) {
+            float x1 = features[f];
+            float z1 = features[f + 1];
+            float x2 = features[f + 2];
+            float z2 = features[f + 3];
+            float radius = features[f + 4];
+
+            int startX = ((int) Math.floor(Math.min(x1, x2) - radius) >> SHIFT) - minX;
+            int startZ = ((int) Math.floor(Math.min(z1, z2) - radius) >> SHIFT) - minZ;
+            int endX = ((int) Math.floor(Math.max(x1, x2) + radius) >> SHIFT) - minX;
+            int endZ = ((int) Math.floor(Math.max(z1, z2) + radius) >> SHIFT) - minZ;
+
+            // a cell can only overlap the feature if its center lies within the feature's radius, plus half the
+            // cell's diagonal, of the line segment
+            float reach = radius + HALF_DIAGONAL;
+            float reach2 = reach * reach;
+            for (int cz = startZ; cz <= endZ; cz++) {
+                float centerZ = ((cz + minZ) << SHIFT) + CELL_SIZE * 0.5F;
+                for (int cx = startX; cx <= endX; cx++) {
+                    float centerX = ((cx + minX) << SHIFT) + CELL_SIZE * 0.5F;
+                    if (distance2(centerX, centerZ, x1, z1, x2, z2) > reach2) {
+                        continue;
+                    }
+
+                    int cell = cz * width + cx;
+                    if (filled == null) {
+                        rows[cell]++;
+                    } else {
+                        items[rows[cell] + filled[cell]++] = i;
+                    }
+                }
+            }
+        }
+    }
+
+    private static float distance2(float x, float z, float x1, float z1, float x2, float z2) {
+        float dx = x2 - x1;
+        float dz = z2 - z1;
+        float length2 = dx * dx + dz * dz;
+        float t = 0F;
+        if (length2 > 0) {
+            t = ((x - x1) * dx + (z - z1) * dz) / length2;
+            t = Math.max(0F, Math.min(1F, t));
+        }
+        float px = x1 + dx * t - x;
+        float pz = z1 + dz * t - z;
+        return px * px + pz * pz;
+    }
+
+    public static Builder builder(int size) {
+        return new Builder(size);
+    }
+
+    public static class Builder {
+
+        private float[] features;
+        private int count;
+
+        private Builder(int size) {
+            this.features = new float[Math.max(1, size) * 5];
+        }
+
+        // a feature reaching up to radius from the line segment between x1,z1 & x2,z2
+        public Builder add(float x1, float z1, float x2, float z2, float radius) {
+            int f = count * 5;
+            if (f + 5 > features.length) {
+                float[] grown = new float[features.length * 2];
+                System.arraycopy(features, 0, grown, 0, features.length);
+                features = grown;
+            }
+            features[f] = x1;
+            features[f + 1] = z1;
+            features[f + 2] = x2;
+            features[f + 3] = z2;
+            features[f + 4] = radius;
+            count++;
+            return this;
+        }
+
+        // a feature reaching up to radius from the point x,z
+        public Builder add(float x, float z, float radius) {
+            return add(x, z, x, z, radius);
+        }
+
+        public RiverIndex build() {
+            return new RiverIndex(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.terraforged.world.rivermap;
+
+import com.terraforged.core.concurrent.thread.ThreadPool;
+import com.terraforged.core.concurrent.thread.ThreadPools;
+import com.terraforged.core.settings.Settings;
+import com.terraforged.core.tile.gen.TileStore;
+import com.terraforged.world.rivermap.gen.RiverGenerator;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// persists generated rivermaps to disk so they can be decoded instead of regenerated. a rivermap is a pure function
+// of the seed, the continent & the settings that shape the heightmap & rivers, so rivermaps are stored one per
+// continent under a directory named after the hash of those settings
+public class RiverStore {
+
+    private static final int MAGIC = 0x54465253; // TFRS
+    private static final int VERSION = 2; // bumped whenever generation changes the stored output
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+    private final Path dir;
+    private final long settingsHash;
+    private final ThreadPool threadPool = ThreadPools.getUtilPool();
+
+    public RiverStore(Path root, long settingsHash) {
+        this.dir = root.resolve(Long.toHexString(settingsHash));
+        this.settingsHash = settingsHash;
+    }
+
+    public long getSettingsHash() {
+        return settingsHash;
+    }
+
+    // the stored rivermap for the continent or null if there isn't one (or it can't be read)
+    public Rivermap load(long id, RiverGenerator generator) {
+        Path file = getPath(id);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (!readHeader(buffer, id)) {
+                return null;
+            }
+            return generator.read(buffer);
+        } catch (Throwable t) {
+            // corrupt/truncated files are regenerated (and overwritten)
+            t.printStackTrace();
+            return null;
+        }
+    }
+
+    public void save(long id, Rivermap rivermap) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + rivermap.getEncodedSize());
+        writeHeader(buffer, id);
+        rivermap.write(buffer);
+        buffer.flip();
+
+        Path file = getPath(id);
+        threadPool.submit(() -> TileStore.write(file, buffer));
+    }
+
+    private Path getPath(long id) {
+        return dir.resolve(Long.toHexString(id) + ".rivers");
+    }
+
+    private boolean readHeader(ByteBuffer buffer, long id) {
+        return buffer.getInt() == MAGIC
+                && buffer.getInt() == VERSION
+                && buffer.getLong() == settingsHash
+                && buffer.getLong() == id;
+    }
+
+    private void writeHeader(ByteBuffer buffer, long id) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(settingsHash);
+        buffer.putLong(id);
+    }
+
+    // a stable hash of the settings that rivermaps depend on. the world settings hash includes the seed
+    public static long hash(Settings settings) {
+        long hash = TileStore.hash(settings.world);
+        hash = hash * 31 + TileStore.hash(settings.terrain);
+        hash = hash * 31 + TileStore.hash(settings.rivers);
+        return hash;
+    }
+}
@@ -4,22 +4,32 @@ import com.terraforged.core.cell.Cell;
 import com.terraforged.core.concurrent.cache.ExpiringEntry;
 import com.terraforged.n2d.domain.Domain;
 import com.terraforged.world.heightmap.Heightmap;
+import com.terraforged.world.heightmap.Levels;
 import com.terraforged.world.rivermap.gen.GenWarp;
 import com.terraforged.world.rivermap.lake.Lake;
+import com.terraforged.world.rivermap.lake.LakeConfig;
 import com.terraforged.world.rivermap.river.River;
+import com.terraforged.world.rivermap.river.RiverBounds;
 import com.terraforged.world.rivermap.wetland.Wetland;
+import com.terraforged.world.terrain.Terrains;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Rivermap implements ExpiringEntry {
 
     private final int x;
     private final int z;
+    private final int warpSeed;
     private final Domain lakeWarp;
     private final Domain riverWarp;
     private final List<Lake> lakes;
     private final List<River> rivers;
     private final List<Wetland> wetland;
+    private final RiverIndex riverIndex;
+    private final RiverIndex lakeIndex;
+    private final RiverIndex wetlandIndex;
     private final long timestamp = System.currentTimeMillis();
 
     public Rivermap(int x, int z, GenWarp warp, List<River> rivers, List<Lake> lakes, List<Wetland> wetland) {
@@ -27,9 +37,13 @@ public class Rivermap implements ExpiringEntry {
         this.z = z;
         this.lakes = lakes;
         this.rivers = rivers;
+        this.warpSeed = warp.seed;
         this.lakeWarp = warp.lake;
         this.riverWarp = warp.river;
         this.wetland = wetland;
+        this.riverIndex = indexRivers(rivers);
+        this.lakeIndex = indexLakes(lakes);
+        this.wetlandIndex = indexWetlands(wetland);
     }
 
     @SuppressWarnings("ForLoopReplaceableByForEach")
@@ -37,21 +51,128 @@ public class Rivermap implements ExpiringEntry {
         float rx = riverWarp.getX(x, z);
         float rz = riverWarp.getY(x, z);
 
-        for (int i = 0; i < rivers.size(); i++) {
-            rivers.get(i).apply(cell, rx, rz);
+        // only the features whose area of influence reaches the position are evaluated
+        int riverCell = riverIndex.getCell(rx, rz);
+        if (riverCell != -1) {
+            for (int i = riverIndex.getStart(riverCell), end = riverIndex.getEnd(riverCell); i < end; i++) {
+                rivers.get(riverIndex.getItem(i)).apply(cell, rx, rz);
+            }
         }
 
-        for (int i = 0; i < wetland.size(); i++) {
-            wetland.get(i).apply(cell, rx, rz, x, z);
+        int wetlandCell = wetlandIndex.getCell(rx, rz);
+        if (wetlandCell != -1) {
+            for (int i = wetlandIndex.getStart(wetlandCell), end = wetlandIndex.getEnd(wetlandCell); i < end; i++) {
+                wetland.get(wetlandIndex.getItem(i)).apply(cell, rx, rz, x, z);
+            }
+        }
+
+        if (lakeIndex.isEmpty()) {
+            return;
         }
 
         float lx = lakeWarp.getX(x, z);
         float lz = lakeWarp.getY(x, z);
-        for (int i = 0; i < lakes.size(); i++) {
-            lakes.get(i).apply(cell, lx, lz);
+        int lakeCell = lakeIndex.getCell(lx, lz);
+        if (lakeCell != -1) {
+            for (int i = lakeIndex.getStart(lakeCell), end = lakeIndex.getEnd(lakeCell); i < end; i++) {
+                lakes.get(lakeIndex.getItem(i)).apply(cell, lx, lz);
+            }
+        }
+    }
+
+    // collects the features that may affect positions within the given (unwarped) bounds. the bounds are expanded
+    // by how far the warps can displace a position
+    public RiverCandidates getCandidates(float minX, float minZ, float maxX, float maxZ, RiverCandidates candidates) {
+        float river = GenWarp.RIVER_REACH;
+        float riverMinX = minX - river;
+        float riverMinZ = minZ - river;
+        float riverMaxX = maxX + river;
+        float riverMaxZ = maxZ + river;
+        candidates.rivers = RiverCandidates.ensure(candidates.rivers, riverIndex.size());
+        candidates.riverCount = riverIndex.collect(riverMinX, riverMinZ, riverMaxX, riverMaxZ, candidates.rivers);
+        candidates.wetlands = RiverCandidates.ensure(candidates.wetlands, wetlandIndex.size());
+        candidates.wetlandCount = wetlandIndex.collect(riverMinX, riverMinZ, riverMaxX, riverMaxZ, candidates.wetlands);
+
+        float lake = GenWarp.LAKE_REACH;
+        candidates.lakes = RiverCandidates.ensure(candidates.lakes, lakeIndex.size());
+        candidates.lakeCount = lakeIndex.collect(minX - lake, minZ - lake, maxX + lake, maxZ + lake, candidates.lakes);
+        return candidates;
+    }
+
+    // as apply(cell, x, z) but only evaluates the given candidates, which must have been collected from this
+    // rivermap for an area containing the position. the warps are skipped entirely when there are none
+    public void apply(Cell cell, float x, float z, RiverCandidates candidates) {
+        if (candidates.riverCount > 0 || candidates.wetlandCount > 0) {
+            float rx = riverWarp.getX(x, z);
+            float rz = riverWarp.getY(x, z);
+
+            for (int i = 0; i < candidates.riverCount; i++) {
+                rivers.get(candidates.rivers[i]).apply(cell, rx, rz);
+            }
+
+            for (int i = 0; i < candidates.wetlandCount; i++) {
+                wetland.get(candidates.wetlands[i]).apply(cell, rx, rz, x, z);
+            }
+        }
+
+        if (candidates.lakeCount > 0) {
+            float lx = lakeWarp.getX(x, z);
+            float lz = lakeWarp.getY(x, z);
+            for (int i = 0; i < candidates.lakeCount; i++) {
+                lakes.get(candidates.lakes[i]).apply(cell, lx, lz);
+            }
+        }
+    }
+
+    public int getEncodedSize() {
+        return 4 * 6 + rivers.size() * River.BYTES + lakes.size() * Lake.BYTES + wetland.size() * Wetland.BYTES;
+    }
+
+    // encodes the inputs each feature was built from, in order, so that read() rebuilds an identical rivermap
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(x);
+        buffer.putInt(z);
+        buffer.putInt(warpSeed);
+        buffer.putInt(rivers.size());
+        for (River river : rivers) {
+            river.write(buffer);
+        }
+        buffer.putInt(lakes.size());
+        for (Lake lake : lakes) {
+            lake.write(buffer);
+        }
+        buffer.putInt(wetland.size());
+        for (Wetland wetland : wetland) {
+            wetland.write(buffer);
         }
     }
 
+    public static Rivermap read(ByteBuffer buffer, Terrains terrains, Levels levels, LakeConfig lakeConfig) {
+        int x = buffer.getInt();
+        int z = buffer.getInt();
+        GenWarp warp = new GenWarp(buffer.getInt());
+
+        int riverCount = buffer.getInt();
+        List<River> rivers = new ArrayList<>(riverCount);
+        for (int i = 0; i < riverCount; i++) {
+            rivers.add(River.read(buffer, terrains, levels));
+        }
+
+        int lakeCount = buffer.getInt();
+        List<Lake> lakes = new ArrayList<>(lakeCount);
+        for (int i = 0; i < lakeCount; i++) {
+            lakes.add(Lake.read(buffer, lakeConfig, terrains));
+        }
+
+        int wetlandCount = buffer.getInt();
+        List<Wetland> wetland = new ArrayList<>(wetlandCount);
+        for (int i = 0; i < wetlandCount; i++) {
+            wetland.add(Wetland.read(buffer, levels, terrains));
+        }
+
+        return new Rivermap(x, z, warp, rivers, lakes, wetland);
+    }
+
     @Override
     public long getTimestamp() {
         return timestamp;
@@ -73,6 +194,31 @@ public class Rivermap implements ExpiringEntry {
         return lakes;
     }
 
+    private static RiverIndex indexRivers(List<River> rivers) {
+        RiverIndex.Builder builder = RiverIndex.builder(rivers.size());
+        for (River river : rivers) {
+            RiverBounds bounds = river.bounds;
+            builder.add(bounds.x1(), bounds.y1(), bounds.x2(), bounds.y2(), river.getRadius());
+        }
+        return builder.build();
+    }
+
+    private static RiverIndex indexLakes(List<Lake> lakes) {
+        RiverIndex.Builder builder = RiverIndex.builder(lakes.size());
+        for (Lake lake : lakes) {
+            builder.add(lake.getCenter().x, lake.getCenter().y, lake.getRadius());
+        }
+        return builder.build();
+    }
+
+    private static RiverIndex indexWetlands(List<Wetland> wetlands) {
+        RiverIndex.Builder builder = RiverIndex.builder(wetlands.size());
+        for (Wetland wetland : wetlands) {
+            builder.add(wetland.start.x, wetland.start.y, wetland.end.x, wetland.end.y, wetland.radius);
+        }
+        return builder.build();
+    }
+
     public static Rivermap get(Cell cell, Rivermap instance, Heightmap heightmap) {
         return get(cell.continentX, cell.continentZ, instance, heightmap);
     }
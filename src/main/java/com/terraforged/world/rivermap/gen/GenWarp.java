@@ -4,10 +4,16 @@ import com.terraforged.n2d.domain.Domain;
 
 public class GenWarp {
 
+    // the furthest each warp can displace a position (the sum of its layers' strengths)
+    public static final float LAKE_REACH = 300 + 50;
+    public static final float RIVER_REACH = 350 + 35 + 2;
+
+    public final int seed;
     public final Domain lake;
     public final Domain river;
 
     public GenWarp(int seed) {
+        this.seed = seed;
         this.lake = Domain.warp(++seed, 200, 1, 300)
                 .add(Domain.warp(++seed, 50, 2, 50));
         this.river = Domain.warp(++seed, 400, 1, 350)
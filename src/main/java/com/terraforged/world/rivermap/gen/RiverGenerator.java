@@ -1,6 +1,7 @@
 package com.terraforged.world.rivermap.gen;
 
 import com.terraforged.core.Seed;
+import com.terraforged.core.util.StreamRandom;
 import com.terraforged.core.util.Variance;
 import com.terraforged.n2d.util.NoiseUtil;
 import com.terraforged.n2d.util.Vec2f;
@@ -18,6 +19,7 @@ import com.terraforged.world.rivermap.wetland.Wetland;
 import com.terraforged.world.rivermap.wetland.WetlandConfig;
 import com.terraforged.world.terrain.Terrains;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -91,8 +93,14 @@ public class RiverGenerator {
         terrain = context.terrain;
     }
 
+    // rebuilds a rivermap from its encoded form (see Rivermap.write)
+    public Rivermap read(ByteBuffer buffer) {
+        return Rivermap.read(buffer, terrain, levels, lake);
+    }
+
     public Rivermap compute(int x, int z, long id) {
-        Random random = new Random(id);
+        // a generator of its own rather than the thread's as rivermaps may be computed while that is in use
+        Random random = new StreamRandom(id);
         GenWarp warp = new GenWarp((int) id);
         int size = listSize.get();
         List<Lake> lakes = new ArrayList<>(size);
@@ -293,7 +301,8 @@ public class RiverGenerator {
 
     private static River.Settings creatSettings(Random random) {
         River.Settings settings = new River.Settings();
-        settings.valleyCurve = River.getValleyType(random);
+        settings.valleyType = River.nextValleyType(random);
+        settings.valleyCurve = River.getValleyCurve(settings.valleyType);
         settings.continentRiverModifier = CONTINENT_MODIFIER_MIN * random.nextFloat();
         settings.continentValleyModifier = settings.continentRiverModifier + (CONTINENT_MODIFIER_RANGE * random.nextFloat());
         return settings;
@@ -26,6 +26,7 @@
 package com.terraforged.world.rivermap.lake;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.n2d.Source;
 import com.terraforged.n2d.util.NoiseUtil;
 import com.terraforged.n2d.util.Vec2f;
@@ -33,8 +34,12 @@ import com.terraforged.world.rivermap.river.River;
 import com.terraforged.world.terrain.Terrains;
 import com.terraforged.world.terrain.populator.TerrainPopulator;
 
+import java.nio.ByteBuffer;
+
 public class Lake extends TerrainPopulator {
 
+    public static final int BYTES = 4 * 4;
+
     protected final float valley2;
     protected final float lakeDistance2;
     protected final float valleyDistance2;
@@ -44,6 +49,8 @@ public class Lake extends TerrainPopulator {
     private final float depth;
     private final float bankMin;
     private final float bankMax;
+    private final float radius;
+    private final float multiplier;
     protected final Vec2f center;
     protected final Terrains terrains;
 
@@ -53,6 +60,8 @@ public class Lake extends TerrainPopulator {
         float valley = River.VALLEY_WIDTH * multiplier;
         this.valley2 = valley * valley;
         this.center = center;
+        this.radius = radius;
+        this.multiplier = multiplier;
         this.depth = config.depth;
         this.bankMin = config.bankMin;
         this.bankMax = config.bankMax;
@@ -106,6 +115,32 @@ public class Lake extends TerrainPopulator {
         }
     }
 
+    @Override
+    public void applyBlock(CellBlock block) {
+        block.applyEach(this);
+    }
+
+    public Vec2f getCenter() {
+        return center;
+    }
+
+    // the distance from the center beyond which the lake has no effect
+    public float getRadius() {
+        return (float) Math.sqrt(valley2);
+    }
+
+    public void write(ByteBuffer buffer) {
+        buffer.putFloat(center.x);
+        buffer.putFloat(center.y);
+        buffer.putFloat(radius);
+        buffer.putFloat(multiplier);
+    }
+
+    public static Lake read(ByteBuffer buffer, LakeConfig config, Terrains terrains) {
+        Vec2f center = new Vec2f(buffer.getFloat(), buffer.getFloat());
+        return new Lake(center, buffer.getFloat(), buffer.getFloat(), config, terrains);
+    }
+
     public boolean overlaps(float x, float z, float radius2) {
         float dist2 = getDistance2(x, z);
         return dist2 < lakeDistance2 + radius2;
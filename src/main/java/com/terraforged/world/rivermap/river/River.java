@@ -26,6 +26,7 @@
 package com.terraforged.world.rivermap.river;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.n2d.Module;
 import com.terraforged.n2d.Source;
 import com.terraforged.n2d.func.CurveFunc;
@@ -36,11 +37,13 @@ import com.terraforged.world.heightmap.Levels;
 import com.terraforged.world.terrain.Terrains;
 import com.terraforged.world.terrain.populator.TerrainPopulator;
 
+import java.nio.ByteBuffer;
 import java.util.Random;
 
 public class River extends TerrainPopulator implements Comparable<River> {
 
     public static final int VALLEY_WIDTH = 275;
+    public static final int BYTES = RiverConfig.BYTES + 4 * 4 + 4 + 8 + 8 + 1 + 4 + 4 + 1;
     private static final float DEPTH_FADE_STRENGTH = 0.5F;
     private static final float MIN_WIDTH2 = 1.5F;
 
@@ -63,9 +66,11 @@ public class River extends TerrainPopulator implements Comparable<River> {
     private final CurveFunc valleyCurve;
     public final RiverConfig config;
     public final RiverBounds bounds;
+    public final Settings settings;
 
     private final Terrains terrains;
 
+    private final float valleyRadius;
     private final float depthFadeBias;
     private final float continentValleyModifier;
     private final float continentRiverModifier;
@@ -80,6 +85,7 @@ public class River extends TerrainPopulator implements Comparable<River> {
         Module valleyWidth = Source.constant(settings.valleySize * settings.valleySize);
         this.bounds = bounds;
         this.config = config;
+        this.settings = settings;
         this.main = config.main;
         this.terrains = terrains;
         this.connecting = settings.connecting;
@@ -96,11 +102,17 @@ public class River extends TerrainPopulator implements Comparable<River> {
         this.bankAlphaRange = bankAlphaMax - bankAlphaMin;
         this.bankVariance = Source.perlin(1234, 150, 1);
         this.depthFadeBias = 1 - DEPTH_FADE_STRENGTH;
+        this.valleyRadius = settings.valleySize;
         this.bed = Source.line(bounds.x1(), bounds.y1(), bounds.x2(), bounds.y2(), bedWidth, bedIn, out, 0.1F);
         this.banks = Source.line(bounds.x1(), bounds.y1(), bounds.x2(), bounds.y2(), bankWidth, banksIn, out, 0.175F);
         this.valley = Source.line(bounds.x1(), bounds.y1(), bounds.x2(), bounds.y2(), valleyWidth, Source.ZERO, Source.ZERO, 0.33F);
     }
 
+    // the distance from the river's line beyond which it has no effect
+    public float getRadius() {
+        return valleyRadius;
+    }
+
     @Override
     public int compareTo(River o) {
         return Integer.compare(config.order, o.config.order);
@@ -159,6 +171,11 @@ public class River extends TerrainPopulator implements Comparable<River> {
         carveBed(cell, bedHeight, bedAlpha);
     }
 
+    @Override
+    public void applyBlock(CellBlock block) {
+        block.applyEach(this);
+    }
+
     private float getBankHeight(Cell cell, float x, float z) {
         // scale bank height based on elevation of the terrain (higher terrain == taller banks)
         float bankHeightAlpha = NoiseUtil.map(cell.value, bankAlphaMin, bankAlphaMax, bankAlphaRange);
@@ -231,6 +248,36 @@ public class River extends TerrainPopulator implements Comparable<River> {
         return NoiseUtil.lerp(extraBedHeight, bedHeight, alpha);
     }
 
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(bounds.x1());
+        buffer.putInt(bounds.y1());
+        buffer.putInt(bounds.x2());
+        buffer.putInt(bounds.y2());
+        config.write(buffer);
+        buffer.putFloat(settings.valleySize);
+        buffer.putDouble(settings.fadeIn);
+        buffer.putDouble(settings.fadeOut);
+        buffer.put((byte) (settings.connecting ? 1 : 0));
+        buffer.putFloat(settings.continentValleyModifier);
+        buffer.putFloat(settings.continentRiverModifier);
+        buffer.put((byte) settings.valleyType);
+    }
+
+    public static River read(ByteBuffer buffer, Terrains terrains, Levels levels) {
+        RiverBounds bounds = new RiverBounds(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        RiverConfig config = RiverConfig.read(buffer);
+        Settings settings = new Settings();
+        settings.valleySize = buffer.getFloat();
+        settings.fadeIn = buffer.getDouble();
+        settings.fadeOut = buffer.getDouble();
+        settings.connecting = buffer.get() != 0;
+        settings.continentValleyModifier = buffer.getFloat();
+        settings.continentRiverModifier = buffer.getFloat();
+        settings.valleyType = buffer.get();
+        settings.valleyCurve = getValleyCurve(settings.valleyType);
+        return new River(bounds, config, settings, terrains, levels);
+    }
+
     public static class Settings {
 
         public float valleySize = VALLEY_WIDTH;
@@ -240,26 +287,42 @@ public class River extends TerrainPopulator implements Comparable<River> {
         public float continentValleyModifier = 0F;
         public float continentRiverModifier = 0F;
         public CurveFunc valleyCurve = new SCurve(2, -0.5F);
+        // the getValleyCurve type that valleyCurve was created from
+        public int valleyType = 3;
     }
 
     public static CurveFunc getValleyType(Random random) {
+        return getValleyCurve(nextValleyType(random));
+    }
+
+    public static int nextValleyType(Random random) {
         int value = random.nextInt(100);
         if (value < 5) {
-            // 'collapsed valley'
-            return new SCurve(0.4F, 1F);
+            return 0;
         }
-
         if (value < 30) {
-            // 'close' valley
-            return new SCurve(4, 5);
+            return 1;
         }
-
         if (value < 50) {
-            // shallow 'close' valley
-            return new SCurve(3, 0.25F);
+            return 2;
         }
+        return 3;
+    }
 
-        // normal valley
-        return new SCurve(2, -0.5F);
+    public static CurveFunc getValleyCurve(int type) {
+        switch (type) {
+            case 0:
+                // 'collapsed valley'
+                return new SCurve(0.4F, 1F);
+            case 1:
+                // 'close' valley
+                return new SCurve(4, 5);
+            case 2:
+                // shallow 'close' valley
+                return new SCurve(3, 0.25F);
+            default:
+                // normal valley
+                return new SCurve(2, -0.5F);
+        }
     }
 }
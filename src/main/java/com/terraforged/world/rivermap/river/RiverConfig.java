@@ -28,8 +28,12 @@ package com.terraforged.world.rivermap.river;
 import com.terraforged.n2d.util.NoiseUtil;
 import com.terraforged.world.heightmap.Levels;
 
+import java.nio.ByteBuffer;
+
 public class RiverConfig {
 
+    public static final int BYTES = 4 + 1 + 4 + 4 + 4 + 4 + 4 + 4 + 8;
+
     public final int order;
     public final boolean main;
     public final int bedWidth;
@@ -87,6 +91,42 @@ public class RiverConfig {
         );
     }
 
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(order);
+        buffer.put((byte) (main ? 1 : 0));
+        buffer.putInt(bedWidth);
+        buffer.putInt(bankWidth);
+        buffer.putFloat(bedHeight);
+        buffer.putFloat(minBankHeight);
+        buffer.putFloat(maxBankHeight);
+        buffer.putInt(length);
+        buffer.putDouble(fade);
+    }
+
+    public static RiverConfig read(ByteBuffer buffer) {
+        int order = buffer.getInt();
+        boolean main = buffer.get() != 0;
+        int bedWidth = buffer.getInt();
+        int bankWidth = buffer.getInt();
+        float bedHeight = buffer.getFloat();
+        float minBankHeight = buffer.getFloat();
+        float maxBankHeight = buffer.getFloat();
+        int length = buffer.getInt();
+        double fade = buffer.getDouble();
+        return new RiverConfig(
+                main,
+                order,
+                bedWidth,
+                bankWidth,
+                bedHeight,
+                minBankHeight,
+                maxBankHeight,
+                length,
+                length * length,
+                fade
+        );
+    }
+
     public static Builder builder(Levels levels) {
         return new Builder(levels);
     }
@@ -2,6 +2,7 @@ package com.terraforged.world.rivermap.wetland;
 
 import com.terraforged.core.Seed;
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.n2d.Module;
 import com.terraforged.n2d.Source;
 import com.terraforged.n2d.source.Line;
@@ -11,15 +12,25 @@ import com.terraforged.world.heightmap.Levels;
 import com.terraforged.world.terrain.Terrains;
 import com.terraforged.world.terrain.populator.TerrainPopulator;
 
+import java.nio.ByteBuffer;
+
 public class Wetland extends TerrainPopulator {
 
     public static final float WIDTH_MIN = 50F;
     public static final float WIDTH_MAX = 150F;
+    public static final int BYTES = 5 * 4 + 3 * 4;
 
     private static final float VALLEY = 0.6F;
     private static final float POOLS = 0.7F;
     private static final float BANKS = POOLS - VALLEY;
 
+    public final Vec2f start;
+    public final Vec2f end;
+    public final float radius;
+    private final int shapeSeed;
+    private final int heightSeed;
+    private final int edgeSeed;
+
     private final Line line;
     private final float bed;
     private final float banks;
@@ -31,16 +42,48 @@ public class Wetland extends TerrainPopulator {
     private final Module terrainEdge;
 
     public Wetland(Seed seed, Vec2f a, Vec2f b, float radius, Levels levels, Terrains terrains) {
+        this(seed.next(), seed.next(), seed.next(), a, b, radius, levels, terrains);
+    }
+
+    public Wetland(int shapeSeed, int heightSeed, int edgeSeed, Vec2f a, Vec2f b, float radius, Levels levels,
+                   Terrains terrains) {
         super(terrains.wetlands, Source.ZERO, Source.ZERO);
         this.bed = levels.water(-1) - (0.5F / levels.worldHeight);
         this.banks = levels.ground(4);
         this.moundMin = levels.water(1);
         this.moundMax = levels.water(2);
         this.moundVariance = moundMax - moundMin;
+        this.start = a;
+        this.end = b;
+        this.radius = radius;
+        this.shapeSeed = shapeSeed;
+        this.heightSeed = heightSeed;
+        this.edgeSeed = edgeSeed;
         this.line = Source.line(a.x, a.y, b.x, b.y, radius, 0, 0);
-        this.moundShape = Source.perlin(seed.next(), 10, 1).clamp(0.3, 0.6).map(0, 1);
-        this.moundHeight = Source.simplex(seed.next(), 20, 1).clamp(0, 0.3).map(0, 1);
-        this.terrainEdge = Source.perlin(seed.next(), 8, 1).clamp(0.2, 0.8).map(0, 0.9);
+        this.moundShape = Source.perlin(shapeSeed, 10, 1).clamp(0.3, 0.6).map(0, 1);
+        this.moundHeight = Source.simplex(heightSeed, 20, 1).clamp(0, 0.3).map(0, 1);
+        this.terrainEdge = Source.perlin(edgeSeed, 8, 1).clamp(0.2, 0.8).map(0, 0.9);
+    }
+
+    public void write(ByteBuffer buffer) {
+        buffer.putFloat(start.x);
+        buffer.putFloat(start.y);
+        buffer.putFloat(end.x);
+        buffer.putFloat(end.y);
+        buffer.putFloat(radius);
+        buffer.putInt(shapeSeed);
+        buffer.putInt(heightSeed);
+        buffer.putInt(edgeSeed);
+    }
+
+    public static Wetland read(ByteBuffer buffer, Levels levels, Terrains terrains) {
+        Vec2f start = new Vec2f(buffer.getFloat(), buffer.getFloat());
+        Vec2f end = new Vec2f(buffer.getFloat(), buffer.getFloat());
+        float radius = buffer.getFloat();
+        int shapeSeed = buffer.getInt();
+        int heightSeed = buffer.getInt();
+        int edgeSeed = buffer.getInt();
+        return new Wetland(shapeSeed, heightSeed, edgeSeed, start, end, radius, levels, terrains);
     }
 
     @Override
@@ -48,6 +91,11 @@ public class Wetland extends TerrainPopulator {
 
     }
 
+    @Override
+    public void applyBlock(CellBlock block) {
+        block.applyEach(this);
+    }
+
     public void apply(Cell cell, float rx, float rz, float x, float z) {
         if (cell.value < bed) {
             return;
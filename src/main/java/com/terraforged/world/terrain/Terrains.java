@@ -81,6 +81,19 @@ public class Terrains {
         this.index = Collections.unmodifiableList(index);
     }
 
+    // looks up a terrain by name, preferring this instance's terrains as they are compared by identity
+    public Terrain getTerrain(String name) {
+        if (name.equals(Terrain.NONE.getName())) {
+            return Terrain.NONE;
+        }
+        for (Terrain terrain : index) {
+            if (terrain.getName().equals(name)) {
+                return terrain;
+            }
+        }
+        return Terrain.get(name).orElse(Terrain.NONE);
+    }
+
     public static Terrains create(Settings settings) {
         Mutable terrain = new Mutable();
         terrain.ocean = Terrain.ocean(settings);
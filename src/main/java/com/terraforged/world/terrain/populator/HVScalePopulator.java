@@ -1,6 +1,7 @@
 package com.terraforged.world.terrain.populator;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.n2d.Module;
 import com.terraforged.world.terrain.Terrain;
 
@@ -17,4 +18,9 @@ public class HVScalePopulator extends VScalePopulator {
     public void apply(Cell cell, float x, float z) {
         super.apply(cell, x * frequency, z * frequency);
     }
+
+    @Override
+    public void applyBlock(CellBlock block) {
+        applyBlock(block, frequency, baseScale, varianceScale);
+    }
 }
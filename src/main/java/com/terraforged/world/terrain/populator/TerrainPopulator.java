@@ -26,6 +26,7 @@
 package com.terraforged.world.terrain.populator;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.cell.Populator;
 import com.terraforged.core.settings.TerrainSettings;
 import com.terraforged.n2d.Module;
@@ -68,6 +69,42 @@ public class TerrainPopulator implements Populator {
         cell.terrain = type;
     }
 
+    @Override
+    public void applyBlock(CellBlock block) {
+        applyBlock(block, 1F, 1F, 1F);
+    }
+
+    // samples each module across the whole block before combining so that the noise evaluation runs in tight
+    // per-module loops rather than alternating between the two for every cell
+    protected void applyBlock(CellBlock block, float frequency, float baseScale, float varianceScale) {
+        float[] base = block.pushFloats();
+        float[] variance = block.pushFloats();
+
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            base[i] = this.base.getValue(block.x[i] * frequency, block.z[i] * frequency);
+        }
+
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            variance[i] = this.variance.getValue(block.x[i] * frequency, block.z[i] * frequency);
+        }
+
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            float value = (base[i] * baseScale) + (variance[i] * varianceScale);
+            if (value < 0) {
+                value = 0;
+            } else if (value > 1) {
+                value = 1;
+            }
+
+            Cell cell = block.cells[i];
+            cell.value = value;
+            cell.terrain = type;
+        }
+
+        block.popFloats();
+        block.popFloats();
+    }
+
     public static Module clamp(Module module) {
         if (module.minValue() < 0 || module.maxValue() > 1) {
             return module.clamp(0, 1);
@@ -1,13 +1,14 @@
 package com.terraforged.world.terrain.populator;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.n2d.Module;
 import com.terraforged.world.terrain.Terrain;
 
 public class VScalePopulator extends TerrainPopulator {
 
-    private final float baseScale;
-    private final float varianceScale;
+    protected final float baseScale;
+    protected final float varianceScale;
 
     public VScalePopulator(Terrain type, Module base, Module variance, float baseScale, float varianceScale) {
         super(type, base, variance);
@@ -30,4 +31,9 @@ public class VScalePopulator extends TerrainPopulator {
 
         cell.terrain = type;
     }
+
+    @Override
+    public void applyBlock(CellBlock block) {
+        applyBlock(block, 1F, baseScale, varianceScale);
+    }
 }
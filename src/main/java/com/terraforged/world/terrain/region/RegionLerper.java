@@ -26,8 +26,10 @@
 package com.terraforged.world.terrain.region;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.cell.Populator;
 import com.terraforged.n2d.util.NoiseUtil;
+import com.terraforged.world.terrain.Terrain;
 
 public class RegionLerper implements Populator {
 
@@ -60,4 +62,26 @@ public class RegionLerper implements Populator {
 
         cell.value = NoiseUtil.lerp(lowerValue, upperValue, alpha);
     }
+
+    @Override
+    public void applyBlock(CellBlock block) {
+        float[] alpha = block.pushFloats();
+        Terrain[] lowerTypes = block.pushTerrains();
+
+        for (int i = 0; i < CellBlock.AREA; i++) {
+            float edge = block.cells[i].terrainRegionEdge;
+            if (edge == 0) {
+                alpha[i] = CellBlock.LOWER;
+            } else if (edge == 1) {
+                alpha[i] = CellBlock.UPPER;
+            } else {
+                alpha[i] = edge;
+            }
+        }
+
+        block.blend(lower, upper, alpha, lowerTypes);
+
+        block.popTerrains();
+        block.popFloats();
+    }
 }
@@ -26,6 +26,7 @@
 package com.terraforged.world.terrain.region;
 
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.core.cell.Populator;
 import com.terraforged.n2d.util.NoiseUtil;
 import com.terraforged.world.terrain.populator.TerrainPopulator;
@@ -48,6 +49,19 @@ public class RegionSelector implements Populator {
         get(cell.terrainRegionIdentity).apply(cell, x, y);
     }
 
+    // regions are much larger than a chunk so most blocks select a single node
+    @Override
+    public void applyBlock(CellBlock block) {
+        Populator node = get(block.cells[0].terrainRegionIdentity);
+        for (int i = 1; i < CellBlock.AREA; i++) {
+            if (get(block.cells[i].terrainRegionIdentity) != node) {
+                block.applyEach(this);
+                return;
+            }
+        }
+        node.applyBlock(block);
+    }
+
     public Populator get(float identity) {
         int index = NoiseUtil.round(identity * maxIndex);
         return nodes[index];
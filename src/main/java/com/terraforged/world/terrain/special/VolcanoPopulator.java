@@ -27,6 +27,7 @@ package com.terraforged.world.terrain.special;
 
 import com.terraforged.core.Seed;
 import com.terraforged.core.cell.Cell;
+import com.terraforged.core.cell.CellBlock;
 import com.terraforged.n2d.Module;
 import com.terraforged.n2d.Source;
 import com.terraforged.n2d.func.EdgeFunc;
@@ -117,4 +118,9 @@ public class VolcanoPopulator extends TerrainPopulator {
 
         cell.value = bias + value;
     }
+
+    @Override
+    public void applyBlock(CellBlock block) {
+        block.applyEach(this);
+    }
 }
@@ -0,0 +1,182 @@
+package com.terraforged.core.filter.kernel;
+
+import com.terraforged.core.filter.Modifier;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API implementations of the filter kernels. lanes run across consecutive cells of a row with each lane
+// performing the same sequence of operations as the scalar kernel, so steepness, beach gradients & separable
+// smoothing are identical to it. exact smoothing can only vectorize the rows above & below the current one (cells read the smoothed values of the
+// cells before them in the same row) so its sums are accumulated in a different order & may differ in the last bit
+public class VectorKernel implements FilterKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "vector-" + SPECIES.length();
+    }
+
+    @Override
+    public void smooth(float[] values, float[] strength, int width, Stencil stencil, float rate, Modifier modifier) {
+        int[] offsets = stencil.offsets(width);
+        float[] weights = stencil.weights;
+        float[] partial = new float[width];
+        int min = stencil.radius;
+        int max = width - stencil.radius;
+        int bound = min + SPECIES.loopBound(max - min);
+
+        for (int z = min; z < max; z++) {
+            int row = z * width;
+
+            // the weighted sums of the neighbouring rows, which are fixed while this row is processed
+            int x = min;
+            for (; x < bound; x += SPECIES.length()) {
+                FloatVector total = FloatVector.zero(SPECIES);
+                for (int k = 0; k < offsets.length; k++) {
+                    if (stencil.dz[k] != 0) {
+                        total = total.add(FloatVector.fromArray(SPECIES, values, row + x + offsets[k]).mul(weights[k]));
+                    }
+                }
+                total.intoArray(partial, x);
+            }
+            for (; x < max; x++) {
+                float total = 0;
+                for (int k = 0; k < offsets.length; k++) {
+                    if (stencil.dz[k] != 0) {
+                        total += values[row + x + offsets[k]] * weights[k];
+                    }
+                }
+                partial[x] = total;
+            }
+
+            // the current row, in order
+            for (x = min; x < max; x++) {
+                int i = row + x;
+                if (strength[i] == 0) {
+                    continue;
+                }
+
+                float total = partial[x];
+                for (int k = 0; k < offsets.length; k++) {
+                    if (stencil.dz[k] == 0) {
+                        total += values[i + offsets[k]] * weights[k];
+                    }
+                }
+
+                values[i] = ScalarKernel.smooth(values[i], total, strength[i], stencil.weightSum, rate, modifier);
+            }
+        }
+    }
+
+    @Override
+    public void smoothSeparable(float[] values, float[] strength, float[] scratch, int width, Stencil row, float rate, Modifier modifier) {
+        int[] dx = row.dx;
+        float[] weights = row.weights;
+        float weightSum = row.weightSum * row.weightSum;
+        float[] partial = new float[width];
+        int min = row.radius;
+        int max = width - row.radius;
+        int bound = min + SPECIES.loopBound(Math.max(0, max - min));
+
+        for (int z = 0; z < width; z++) {
+            int offset = z * width;
+            int x = min;
+            for (; x < bound; x += SPECIES.length()) {
+                FloatVector total = FloatVector.zero(SPECIES);
+                for (int k = 0; k < dx.length; k++) {
+                    total = total.add(FloatVector.fromArray(SPECIES, values, offset + x + dx[k]).mul(weights[k]));
+                }
+                total.intoArray(scratch, offset + x);
+            }
+            for (; x < max; x++) {
+                float total = 0;
+                for (int k = 0; k < dx.length; k++) {
+                    total += values[offset + x + dx[k]] * weights[k];
+                }
+                scratch[offset + x] = total;
+            }
+        }
+
+        for (int z = min; z < max; z++) {
+            int offset = z * width;
+            int x = min;
+            for (; x < bound; x += SPECIES.length()) {
+                FloatVector total = FloatVector.zero(SPECIES);
+                for (int k = 0; k < dx.length; k++) {
+                    total = total.add(FloatVector.fromArray(SPECIES, scratch, offset + x + dx[k] * width).mul(weights[k]));
+                }
+                total.intoArray(partial, x);
+            }
+            for (; x < max; x++) {
+                float total = 0;
+                for (int k = 0; k < dx.length; k++) {
+                    total += scratch[offset + x + dx[k] * width] * weights[k];
+                }
+                partial[x] = total;
+            }
+
+            for (x = min; x < max; x++) {
+                int i = offset + x;
+                if (strength[i] != 0) {
+                    values[i] = ScalarKernel.smooth(values[i], partial[x], strength[i], weightSum, rate, modifier);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void steepness(float[] values, float[] gradients, int width, int size, int radius, float scaler, float waterLevel, int from, int to) {
+        int[] offsets = ScalarKernel.steepnessOffsets(width, radius);
+        int start = Math.max(from, ScalarKernel.steepnessStart(width, size, radius));
+        int end = Math.min(to, ScalarKernel.steepnessEnd(width, size, radius));
+        int bound = start + SPECIES.loopBound(Math.max(0, end - start));
+
+        ScalarKernel.steepnessEdge(values, gradients, offsets, from, Math.min(to, start), size, radius, scaler, waterLevel);
+
+        int i = start;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector value = FloatVector.fromArray(SPECIES, values, i);
+            FloatVector total = FloatVector.zero(SPECIES);
+            for (int offset : offsets) {
+                FloatVector height = FloatVector.fromArray(SPECIES, values, i + offset).max(waterLevel);
+                total = total.add(value.sub(height).abs().div(radius));
+            }
+            total.mul(scaler).min(1F).intoArray(gradients, i);
+        }
+        for (; i < end; i++) {
+            gradients[i] = ScalarKernel.steepness(values, offsets, i, radius, scaler, waterLevel);
+        }
+
+        ScalarKernel.steepnessEdge(values, gradients, offsets, Math.max(from, end), to, size, radius, scaler, waterLevel);
+    }
+
+    @Override
+    public void beachGradient(float[] values, float[] gradients, int width, int size, int radius, int from, int to) {
+        int start = Math.max(from, ScalarKernel.beachStart(width, size, radius));
+        int end = Math.min(to, ScalarKernel.beachEnd(width, size, radius));
+        int bound = start + SPECIES.loopBound(Math.max(0, end - start));
+        int row = radius * width;
+        float distance = radius + 1 + radius;
+
+        ScalarKernel.beachEdge(values, gradients, width, from, Math.min(to, start), size, radius);
+
+        int i = start;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector e = FloatVector.fromArray(SPECIES, values, i + radius);
+            FloatVector w = FloatVector.fromArray(SPECIES, values, i - radius);
+            FloatVector n = FloatVector.fromArray(SPECIES, values, i - row);
+            FloatVector s = FloatVector.fromArray(SPECIES, values, i + row);
+            FloatVector gx = e.sub(w).div(distance);
+            FloatVector gz = n.sub(s).div(distance);
+            gx.mul(gx).add(gz.mul(gz)).intoArray(gradients, i);
+        }
+        for (; i < end; i++) {
+            float gx = (values[i + radius] - values[i - radius]) / distance;
+            float gz = (values[i - row] - values[i + row]) / distance;
+            gradients[i] = gx * gx + gz * gz;
+        }
+
+        ScalarKernel.beachEdge(values, gradients, width, Math.max(from, end), to, size, radius);
+    }
+}